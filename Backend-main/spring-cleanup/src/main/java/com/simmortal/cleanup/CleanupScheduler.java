@@ -18,17 +18,20 @@ public class CleanupScheduler {
     private final JdbcTemplate jdbcTemplate;
     private final CleanupJobGuard jobGuard;
     private final StorageCleanupService storageCleanupService;
+    private final MemorialStatsReconciler memorialStatsReconciler;
     private final ZoneId zoneId;
 
     public CleanupScheduler(
         JdbcTemplate jdbcTemplate,
         CleanupJobGuard jobGuard,
         StorageCleanupService storageCleanupService,
+        MemorialStatsReconciler memorialStatsReconciler,
         @Value("${cleanup.scheduler.timezone:UTC}") String timeZone
     ) {
         this.jdbcTemplate = jdbcTemplate;
         this.jobGuard = jobGuard;
         this.storageCleanupService = storageCleanupService;
+        this.memorialStatsReconciler = memorialStatsReconciler;
         this.zoneId = ZoneId.of(timeZone);
     }
 
@@ -100,6 +103,20 @@ public class CleanupScheduler {
         );
     }
 
+    @Scheduled(cron = "${cleanup.scheduler.cron.memorial-stats:0 0 4 * * *}", zone = "${cleanup.scheduler.timezone:UTC}")
+    public void reconcileMemorialStats() {
+        executeJob(
+            CleanupTaskCode.RECONCILE_MEMORIAL_STATS,
+            "reconcile-memorial-stats",
+            CleanupJobGuard.Frequency.DAILY,
+            () -> {
+                logger.info("Starting memorial stats reconciliation");
+                int repaired = memorialStatsReconciler.reconcile();
+                logger.info("Repaired counter drift on {} memorials", repaired);
+            }
+        );
+    }
+
     private void executeJob(
         CleanupTaskCode taskCode,
         String jobName,
@@ -3,7 +3,8 @@ package com.simmortal.cleanup;
 public enum CleanupTaskCode {
     CLEAN_RESERVED_URLS(1001L),
     CLEAN_MEMORIES(1002L),
-    CLEAN_CONDOLENCES(1003L);
+    CLEAN_CONDOLENCES(1003L),
+    RECONCILE_MEMORIAL_STATS(1004L);
 
     private final long lockId;
 
@@ -0,0 +1,104 @@
+package com.simmortal.cleanup;
+
+import java.util.List;
+import java.util.UUID;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Component
+public class MemorialStatsReconciler {
+    private static final String STATS =
+        "SELECT mm.id, " +
+            "COALESCE(l.total, 0) AS total_likes, " +
+            "COALESCE(me.total, 0) AS total_memories, " +
+            "COALESCE(c.total, 0) AS total_condolences, " +
+            "COALESCE(v.total, 0) AS total_views, " +
+            "COALESCE(d.trees, 0) AS total_trees, " +
+            "COALESCE(d.cents, 0) AS total_donations_in_cents, " +
+            "COALESCE(pt.candles, 0) + COALESCE(mw.candles, 0) + COALESCE(cw.candles, 0) AS total_candles, " +
+            "COALESCE(pt.flowers, 0) + COALESCE(mw.flowers, 0) + COALESCE(cw.flowers, 0) AS total_flowers " +
+        "FROM memorial mm " +
+        "LEFT JOIN (SELECT memorial_id, COUNT(*) AS total FROM memorial_like GROUP BY memorial_id) l " +
+            "ON l.memorial_id = mm.id " +
+        "LEFT JOIN (SELECT memorial_id, COUNT(*) AS total FROM memory " +
+            "WHERE status = 'published' GROUP BY memorial_id) me ON me.memorial_id = mm.id " +
+        "LEFT JOIN (SELECT memorial_id, COUNT(*) AS total FROM condolence " +
+            "WHERE status = 'published' GROUP BY memorial_id) c ON c.memorial_id = mm.id " +
+        "LEFT JOIN (SELECT memorial_id, COUNT(*) AS total FROM memorial_view_log GROUP BY memorial_id) v " +
+            "ON v.memorial_id = mm.id " +
+        "LEFT JOIN (SELECT memorial_id, SUM(item_count) AS trees, SUM(value_in_cents) AS cents FROM donation " +
+            "WHERE status = 'published' GROUP BY memorial_id) d ON d.memorial_id = mm.id " +
+        "LEFT JOIN memorial_tribute_weight pt " +
+            "ON mm.is_premium AND pt.tribute = mm.tribute_v2::text " +
+        "LEFT JOIN (" +
+            "SELECT m.memorial_id, " +
+                "SUM(COALESCE(dw.candles, 0) + COALESCE(tw.candles, 0)) AS candles, " +
+                "SUM(COALESCE(dw.flowers, 0) + COALESCE(tw.flowers, 0)) AS flowers " +
+            "FROM memory m " +
+            "LEFT JOIN memorial_decoration_weight dw ON dw.decoration = m.decoration_new::text " +
+            "LEFT JOIN memorial_tribute_weight tw ON tw.tribute = m.asset_decoration_v2::text " +
+            "WHERE m.status = 'published' GROUP BY m.memorial_id" +
+        ") mw ON mw.memorial_id = mm.id " +
+        "LEFT JOIN (" +
+            "SELECT c.memorial_id, " +
+                "SUM(COALESCE(dw.candles, 0)) AS candles, " +
+                "SUM(COALESCE(dw.flowers, 0)) AS flowers " +
+            "FROM condolence c " +
+            "LEFT JOIN memorial_decoration_weight dw ON dw.decoration = c.decoration_new::text " +
+            "WHERE c.status = 'published' GROUP BY c.memorial_id" +
+        ") cw ON cw.memorial_id = mm.id ";
+    private static final String DRIFTED =
+        "(m.total_likes, m.total_memories, m.total_condolences, m.total_views, " +
+            "m.total_trees, m.total_donations_in_cents, m.total_candles, m.total_flowers) " +
+        "IS DISTINCT FROM (s.total_likes, s.total_memories, s.total_condolences, s.total_views, " +
+            "s.total_trees, s.total_donations_in_cents, s.total_candles, s.total_flowers)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public MemorialStatsReconciler(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    public int reconcile() {
+        List<UUID> drifted = jdbcTemplate.queryForList(
+            "SELECT m.id FROM memorial m JOIN (" + STATS + ") s ON s.id = m.id WHERE " + DRIFTED,
+            UUID.class
+        );
+        int repaired = 0;
+        for (UUID memorialId : drifted) {
+            Integer updated = transactionTemplate.execute(status -> repair(memorialId));
+            if (updated != null) {
+                repaired += updated;
+            }
+        }
+        return repaired;
+    }
+
+    private int repair(UUID memorialId) {
+        List<UUID> locked = jdbcTemplate.queryForList(
+            "SELECT id FROM memorial WHERE id = ? FOR UPDATE",
+            UUID.class,
+            memorialId
+        );
+        if (locked.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(
+            "UPDATE memorial m SET " +
+                "total_likes = s.total_likes, " +
+                "total_memories = s.total_memories, " +
+                "total_condolences = s.total_condolences, " +
+                "total_views = s.total_views, " +
+                "total_trees = s.total_trees, " +
+                "total_donations_in_cents = s.total_donations_in_cents, " +
+                "total_candles = s.total_candles, " +
+                "total_flowers = s.total_flowers " +
+            "FROM (" + STATS + "WHERE mm.id = ?) s " +
+            "WHERE s.id = m.id AND " + DRIFTED,
+            memorialId
+        );
+    }
+}
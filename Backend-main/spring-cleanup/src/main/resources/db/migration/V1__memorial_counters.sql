@@ -0,0 +1,288 @@
+ALTER TABLE memorial ADD COLUMN IF NOT EXISTS total_likes integer NOT NULL DEFAULT 0;
+ALTER TABLE memorial ADD COLUMN IF NOT EXISTS total_memories integer NOT NULL DEFAULT 0;
+ALTER TABLE memorial ADD COLUMN IF NOT EXISTS total_condolences integer NOT NULL DEFAULT 0;
+ALTER TABLE memorial ADD COLUMN IF NOT EXISTS total_views integer NOT NULL DEFAULT 0;
+ALTER TABLE memorial ADD COLUMN IF NOT EXISTS total_trees bigint NOT NULL DEFAULT 0;
+ALTER TABLE memorial ADD COLUMN IF NOT EXISTS total_donations_in_cents bigint NOT NULL DEFAULT 0;
+ALTER TABLE memorial ADD COLUMN IF NOT EXISTS total_candles integer NOT NULL DEFAULT 0;
+ALTER TABLE memorial ADD COLUMN IF NOT EXISTS total_flowers integer NOT NULL DEFAULT 0;
+
+CREATE TABLE IF NOT EXISTS memorial_tribute_weight (
+    tribute text PRIMARY KEY,
+    candles integer NOT NULL,
+    flowers integer NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS memorial_decoration_weight (
+    decoration text PRIMARY KEY,
+    candles integer NOT NULL,
+    flowers integer NOT NULL
+);
+
+INSERT INTO memorial_tribute_weight (tribute, candles, flowers) VALUES
+    ('default', 0, 0),
+    ('amethyst-tranquility', 7, 4),
+    ('blossom-of-grace', 8, 5),
+    ('crimson-devotion', 7, 6),
+    ('flames-of-remembrance', 8, 0),
+    ('frostlight-harmony', 11, 4),
+    ('golden-serenity', 10, 8),
+    ('lunar-serenity', 7, 4),
+    ('midnight-serenity', 7, 10),
+    ('ocean-of-light', 13, 0),
+    ('royal-sunrise', 0, 11),
+    ('celestial-bloom', 9, 6),
+    ('midnight-elegy', 0, 17)
+ON CONFLICT (tribute) DO UPDATE SET candles = EXCLUDED.candles, flowers = EXCLUDED.flowers;
+
+INSERT INTO memorial_decoration_weight (decoration, candles, flowers) VALUES
+    ('amethera-rose', 0, 1),
+    ('amethyst-ravel', 0, 1),
+    ('aurelia-bloom', 0, 1),
+    ('azure-peonia', 0, 1),
+    ('celestia-lily', 0, 1),
+    ('circle-of-serenity', 6, 0),
+    ('coralia-hibiscus', 0, 1),
+    ('frostaria-bloom', 0, 1),
+    ('golden-reverie', 0, 2),
+    ('ivory-whisper', 0, 1),
+    ('lunaria-lily', 0, 1),
+    ('nocturne-calla', 0, 1),
+    ('rosalia-peony', 0, 1),
+    ('seraphine-calla', 0, 1),
+    ('solaria-bloom', 0, 1),
+    ('solaris-hibiscus', 0, 1),
+    ('sonata-bloom', 0, 1),
+    ('trinity-of-light', 3, 0),
+    ('veloria-lisianthus', 0, 3)
+ON CONFLICT (decoration) DO UPDATE SET candles = EXCLUDED.candles, flowers = EXCLUDED.flowers;
+
+CREATE OR REPLACE FUNCTION memorial_stats_apply(target uuid, counter text, delta bigint)
+RETURNS void AS $$
+BEGIN
+    IF target IS NULL OR delta = 0 THEN RETURN; END IF;
+    EXECUTE format('UPDATE memorial SET %1$I = GREATEST(%1$I + $1, 0) WHERE id = $2', counter)
+        USING delta, target;
+END $$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION memorial_stats_count_rows() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        PERFORM memorial_stats_apply(NEW.memorial_id, TG_ARGV[0], 1);
+    ELSIF TG_OP = 'DELETE' THEN
+        PERFORM memorial_stats_apply(OLD.memorial_id, TG_ARGV[0], -1);
+    END IF;
+    RETURN NULL;
+END $$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION memorial_stats_count_published() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'UPDATE' AND OLD.status IS NOT DISTINCT FROM NEW.status
+        AND OLD.memorial_id IS NOT DISTINCT FROM NEW.memorial_id THEN
+        RETURN NULL;
+    END IF;
+    IF TG_OP <> 'INSERT' THEN
+        IF OLD.status = 'published' THEN
+            PERFORM memorial_stats_apply(OLD.memorial_id, TG_ARGV[0], -1);
+        END IF;
+    END IF;
+    IF TG_OP <> 'DELETE' THEN
+        IF NEW.status = 'published' THEN
+            PERFORM memorial_stats_apply(NEW.memorial_id, TG_ARGV[0], 1);
+        END IF;
+    END IF;
+    RETURN NULL;
+END $$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION memorial_stats_sum_donations() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP <> 'INSERT' THEN
+        IF OLD.status = 'published' THEN
+            PERFORM memorial_stats_apply(OLD.memorial_id, 'total_trees', -COALESCE(OLD.item_count, 0));
+            PERFORM memorial_stats_apply(OLD.memorial_id, 'total_donations_in_cents', -COALESCE(OLD.value_in_cents, 0));
+        END IF;
+    END IF;
+    IF TG_OP <> 'DELETE' THEN
+        IF NEW.status = 'published' THEN
+            PERFORM memorial_stats_apply(NEW.memorial_id, 'total_trees', COALESCE(NEW.item_count, 0));
+            PERFORM memorial_stats_apply(NEW.memorial_id, 'total_donations_in_cents', COALESCE(NEW.value_in_cents, 0));
+        END IF;
+    END IF;
+    RETURN NULL;
+END $$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION memorial_contribution_weight(
+    decoration text, tribute text, OUT candles integer, OUT flowers integer) AS $$
+SELECT COALESCE(SUM(w.candles), 0)::integer, COALESCE(SUM(w.flowers), 0)::integer FROM (
+    SELECT dw.candles, dw.flowers FROM memorial_decoration_weight dw WHERE dw.decoration = $1
+    UNION ALL
+    SELECT tw.candles, tw.flowers FROM memorial_tribute_weight tw WHERE tw.tribute = $2
+) w
+$$ LANGUAGE sql STABLE;
+
+CREATE OR REPLACE FUNCTION memorial_stats_weigh_memory() RETURNS trigger AS $$
+DECLARE weight record;
+BEGIN
+    IF TG_OP = 'UPDATE' AND OLD.status IS NOT DISTINCT FROM NEW.status
+        AND OLD.memorial_id IS NOT DISTINCT FROM NEW.memorial_id
+        AND OLD.decoration_new IS NOT DISTINCT FROM NEW.decoration_new
+        AND OLD.asset_decoration_v2 IS NOT DISTINCT FROM NEW.asset_decoration_v2 THEN
+        RETURN NULL;
+    END IF;
+    IF TG_OP <> 'INSERT' THEN
+        IF OLD.status = 'published' THEN
+            SELECT * INTO weight FROM memorial_contribution_weight(
+                OLD.decoration_new::text, OLD.asset_decoration_v2::text);
+            PERFORM memorial_stats_apply(OLD.memorial_id, 'total_candles', -weight.candles);
+            PERFORM memorial_stats_apply(OLD.memorial_id, 'total_flowers', -weight.flowers);
+        END IF;
+    END IF;
+    IF TG_OP <> 'DELETE' THEN
+        IF NEW.status = 'published' THEN
+            SELECT * INTO weight FROM memorial_contribution_weight(
+                NEW.decoration_new::text, NEW.asset_decoration_v2::text);
+            PERFORM memorial_stats_apply(NEW.memorial_id, 'total_candles', weight.candles);
+            PERFORM memorial_stats_apply(NEW.memorial_id, 'total_flowers', weight.flowers);
+        END IF;
+    END IF;
+    RETURN NULL;
+END $$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION memorial_stats_weigh_condolence() RETURNS trigger AS $$
+DECLARE weight record;
+BEGIN
+    IF TG_OP = 'UPDATE' AND OLD.status IS NOT DISTINCT FROM NEW.status
+        AND OLD.memorial_id IS NOT DISTINCT FROM NEW.memorial_id
+        AND OLD.decoration_new IS NOT DISTINCT FROM NEW.decoration_new THEN
+        RETURN NULL;
+    END IF;
+    IF TG_OP <> 'INSERT' THEN
+        IF OLD.status = 'published' THEN
+            SELECT * INTO weight FROM memorial_contribution_weight(OLD.decoration_new::text, NULL);
+            PERFORM memorial_stats_apply(OLD.memorial_id, 'total_candles', -weight.candles);
+            PERFORM memorial_stats_apply(OLD.memorial_id, 'total_flowers', -weight.flowers);
+        END IF;
+    END IF;
+    IF TG_OP <> 'DELETE' THEN
+        IF NEW.status = 'published' THEN
+            SELECT * INTO weight FROM memorial_contribution_weight(NEW.decoration_new::text, NULL);
+            PERFORM memorial_stats_apply(NEW.memorial_id, 'total_candles', weight.candles);
+            PERFORM memorial_stats_apply(NEW.memorial_id, 'total_flowers', weight.flowers);
+        END IF;
+    END IF;
+    RETURN NULL;
+END $$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION memorial_stats_weigh_premium_tribute() RETURNS trigger AS $$
+DECLARE previous_weight record; next_weight record;
+BEGIN
+    IF TG_OP = 'UPDATE' AND OLD.is_premium IS NOT DISTINCT FROM NEW.is_premium
+        AND OLD.tribute_v2 IS NOT DISTINCT FROM NEW.tribute_v2 THEN
+        RETURN NEW;
+    END IF;
+    SELECT * INTO previous_weight FROM memorial_contribution_weight(NULL, NULL);
+    IF TG_OP = 'UPDATE' AND OLD.is_premium THEN
+        SELECT * INTO previous_weight FROM memorial_contribution_weight(NULL, OLD.tribute_v2::text);
+    END IF;
+    SELECT * INTO next_weight FROM memorial_contribution_weight(NULL, NULL);
+    IF NEW.is_premium THEN
+        SELECT * INTO next_weight FROM memorial_contribution_weight(NULL, NEW.tribute_v2::text);
+    END IF;
+    NEW.total_candles := GREATEST(COALESCE(NEW.total_candles, 0) + next_weight.candles - previous_weight.candles, 0);
+    NEW.total_flowers := GREATEST(COALESCE(NEW.total_flowers, 0) + next_weight.flowers - previous_weight.flowers, 0);
+    RETURN NEW;
+END $$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS memorial_stats_likes ON memorial_like;
+CREATE TRIGGER memorial_stats_likes
+    AFTER INSERT OR DELETE ON memorial_like
+    FOR EACH ROW EXECUTE FUNCTION memorial_stats_count_rows('total_likes');
+
+DROP TRIGGER IF EXISTS memorial_stats_views ON memorial_view_log;
+CREATE TRIGGER memorial_stats_views
+    AFTER INSERT OR DELETE ON memorial_view_log
+    FOR EACH ROW EXECUTE FUNCTION memorial_stats_count_rows('total_views');
+
+DROP TRIGGER IF EXISTS memorial_stats_memories ON memory;
+CREATE TRIGGER memorial_stats_memories
+    AFTER INSERT OR DELETE OR UPDATE OF status, memorial_id ON memory
+    FOR EACH ROW EXECUTE FUNCTION memorial_stats_count_published('total_memories');
+
+DROP TRIGGER IF EXISTS memorial_stats_condolences ON condolence;
+CREATE TRIGGER memorial_stats_condolences
+    AFTER INSERT OR DELETE OR UPDATE OF status, memorial_id ON condolence
+    FOR EACH ROW EXECUTE FUNCTION memorial_stats_count_published('total_condolences');
+
+DROP TRIGGER IF EXISTS memorial_stats_donations ON donation;
+CREATE TRIGGER memorial_stats_donations
+    AFTER INSERT OR DELETE OR UPDATE OF status, memorial_id, item_count, value_in_cents ON donation
+    FOR EACH ROW EXECUTE FUNCTION memorial_stats_sum_donations();
+
+DROP TRIGGER IF EXISTS memorial_stats_memory_weights ON memory;
+CREATE TRIGGER memorial_stats_memory_weights
+    AFTER INSERT OR DELETE OR UPDATE OF status, memorial_id, decoration_new, asset_decoration_v2 ON memory
+    FOR EACH ROW EXECUTE FUNCTION memorial_stats_weigh_memory();
+
+DROP TRIGGER IF EXISTS memorial_stats_condolence_weights ON condolence;
+CREATE TRIGGER memorial_stats_condolence_weights
+    AFTER INSERT OR DELETE OR UPDATE OF status, memorial_id, decoration_new ON condolence
+    FOR EACH ROW EXECUTE FUNCTION memorial_stats_weigh_condolence();
+
+DROP TRIGGER IF EXISTS memorial_stats_premium_tribute ON memorial;
+CREATE TRIGGER memorial_stats_premium_tribute
+    BEFORE INSERT OR UPDATE OF is_premium, tribute_v2 ON memorial
+    FOR EACH ROW EXECUTE FUNCTION memorial_stats_weigh_premium_tribute();
+
+LOCK TABLE memorial_like, memorial_view_log, memory, condolence, donation IN SHARE MODE;
+
+UPDATE memorial m SET
+    total_likes = s.total_likes,
+    total_memories = s.total_memories,
+    total_condolences = s.total_condolences,
+    total_views = s.total_views,
+    total_trees = s.total_trees,
+    total_donations_in_cents = s.total_donations_in_cents,
+    total_candles = s.total_candles,
+    total_flowers = s.total_flowers
+FROM (
+    SELECT mm.id,
+        COALESCE(l.total, 0) AS total_likes,
+        COALESCE(me.total, 0) AS total_memories,
+        COALESCE(c.total, 0) AS total_condolences,
+        COALESCE(v.total, 0) AS total_views,
+        COALESCE(d.trees, 0) AS total_trees,
+        COALESCE(d.cents, 0) AS total_donations_in_cents,
+        COALESCE(pt.candles, 0) + COALESCE(mw.candles, 0) + COALESCE(cw.candles, 0) AS total_candles,
+        COALESCE(pt.flowers, 0) + COALESCE(mw.flowers, 0) + COALESCE(cw.flowers, 0) AS total_flowers
+    FROM memorial mm
+    LEFT JOIN (SELECT memorial_id, COUNT(*) AS total FROM memorial_like GROUP BY memorial_id) l
+        ON l.memorial_id = mm.id
+    LEFT JOIN (SELECT memorial_id, COUNT(*) AS total FROM memory
+        WHERE status = 'published' GROUP BY memorial_id) me ON me.memorial_id = mm.id
+    LEFT JOIN (SELECT memorial_id, COUNT(*) AS total FROM condolence
+        WHERE status = 'published' GROUP BY memorial_id) c ON c.memorial_id = mm.id
+    LEFT JOIN (SELECT memorial_id, COUNT(*) AS total FROM memorial_view_log GROUP BY memorial_id) v
+        ON v.memorial_id = mm.id
+    LEFT JOIN (SELECT memorial_id, SUM(item_count) AS trees, SUM(value_in_cents) AS cents FROM donation
+        WHERE status = 'published' GROUP BY memorial_id) d ON d.memorial_id = mm.id
+    LEFT JOIN memorial_tribute_weight pt
+        ON mm.is_premium AND pt.tribute = mm.tribute_v2::text
+    LEFT JOIN (
+        SELECT m.memorial_id,
+            SUM(COALESCE(dw.candles, 0) + COALESCE(tw.candles, 0)) AS candles,
+            SUM(COALESCE(dw.flowers, 0) + COALESCE(tw.flowers, 0)) AS flowers
+        FROM memory m
+        LEFT JOIN memorial_decoration_weight dw ON dw.decoration = m.decoration_new::text
+        LEFT JOIN memorial_tribute_weight tw ON tw.tribute = m.asset_decoration_v2::text
+        WHERE m.status = 'published' GROUP BY m.memorial_id
+    ) mw ON mw.memorial_id = mm.id
+    LEFT JOIN (
+        SELECT c.memorial_id,
+            SUM(COALESCE(dw.candles, 0)) AS candles,
+            SUM(COALESCE(dw.flowers, 0)) AS flowers
+        FROM condolence c
+        LEFT JOIN memorial_decoration_weight dw ON dw.decoration = c.decoration_new::text
+        WHERE c.status = 'published' GROUP BY c.memorial_id
+    ) cw ON cw.memorial_id = mm.id
+) s
+WHERE s.id = m.id;
@@ -20,7 +20,6 @@ import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
 import org.hibernate.annotations.CreationTimestamp;
-import org.hibernate.annotations.Formula;
 import org.hibernate.annotations.UpdateTimestamp;
 
 @Entity
@@ -130,230 +129,28 @@ public class MemorialEntity {
   @OneToOne(mappedBy = "memorial")
   private MemorialLocationEntity location;
 
-  @Formula("(SELECT COUNT(*) FROM memorial_like ml WHERE ml.memorial_id = id)")
+  @Column(name = "total_likes", insertable = false, updatable = false)
   private Integer totalLikes;
 
-  @Formula(
-      "(SELECT COUNT(*) FROM memory m WHERE m.memorial_id = id AND m.status = 'published')")
+  @Column(name = "total_memories", insertable = false, updatable = false)
   private Integer totalMemories;
 
-  @Formula(
-      "(SELECT COUNT(*) FROM condolence c WHERE c.memorial_id = id AND c.status = 'published')")
+  @Column(name = "total_condolences", insertable = false, updatable = false)
   private Integer totalCondolences;
 
-  @Formula("(SELECT COUNT(*) FROM memorial_view_log c WHERE c.memorial_id = id)")
+  @Column(name = "total_views", insertable = false, updatable = false)
   private Integer totalViews;
 
-  @Formula(
-      "(\n"
-          + "    (\n"
-          + "      COALESCE((\n"
-          + "        SELECT t.flowers\n"
-          + "        FROM (VALUES\n"
-          + "          ('default'::memorial_tribute_v2, 0, 0),\n"
-          + "          ('amethyst-tranquility'::memorial_tribute_v2, 7, 4),\n"
-          + "          ('blossom-of-grace'::memorial_tribute_v2, 8, 5),\n"
-          + "          ('crimson-devotion'::memorial_tribute_v2, 7, 6),\n"
-          + "          ('flames-of-remembrance'::memorial_tribute_v2, 8, 0),\n"
-          + "          ('frostlight-harmony'::memorial_tribute_v2, 11, 4),\n"
-          + "          ('golden-serenity'::memorial_tribute_v2, 10, 8),\n"
-          + "          ('lunar-serenity'::memorial_tribute_v2, 7, 4),\n"
-          + "          ('midnight-serenity'::memorial_tribute_v2, 7, 10),\n"
-          + "          ('ocean-of-light'::memorial_tribute_v2, 13, 0),\n"
-          + "          ('royal-sunrise'::memorial_tribute_v2, 0, 11),\n"
-          + "          ('celestial-bloom'::memorial_tribute_v2, 9, 6),\n"
-          + "          ('midnight-elegy'::memorial_tribute_v2, 0, 17)\n"
-          + "        ) AS t(key, candles, flowers)\n"
-          + "        WHERE t.key = tribute_v2\n"
-          + "          AND is_premium = true\n"
-          + "      ), 0)\n"
-          + "      +\n"
-          + "      COALESCE((\n"
-          + "        SELECT COALESCE(SUM(\n"
-          + "          COALESCE(dv.flowers, 0) + COALESCE(tv.flowers, 0)\n"
-          + "        ), 0)\n"
-          + "        FROM memory m\n"
-          + "        LEFT JOIN (VALUES\n"
-          + "          ('amethera-rose'::memorial_decoration_new, 0, 1),\n"
-          + "          ('amethyst-ravel'::memorial_decoration_new, 0, 1),\n"
-          + "          ('aurelia-bloom'::memorial_decoration_new, 0, 1),\n"
-          + "          ('azure-peonia'::memorial_decoration_new, 0, 1),\n"
-          + "          ('celestia-lily'::memorial_decoration_new, 0, 1),\n"
-          + "          ('circle-of-serenity'::memorial_decoration_new, 6, 0),\n"
-          + "          ('coralia-hibiscus'::memorial_decoration_new, 0, 1),\n"
-          + "          ('frostaria-bloom'::memorial_decoration_new, 0, 1),\n"
-          + "          ('golden-reverie'::memorial_decoration_new, 0, 2),\n"
-          + "          ('ivory-whisper'::memorial_decoration_new, 0, 1),\n"
-          + "          ('lunaria-lily'::memorial_decoration_new, 0, 1),\n"
-          + "          ('nocturne-calla'::memorial_decoration_new, 0, 1),\n"
-          + "          ('rosalia-peony'::memorial_decoration_new, 0, 1),\n"
-          + "          ('seraphine-calla'::memorial_decoration_new, 0, 1),\n"
-          + "          ('solaria-bloom'::memorial_decoration_new, 0, 1),\n"
-          + "          ('solaris-hibiscus'::memorial_decoration_new, 0, 1),\n"
-          + "          ('sonata-bloom'::memorial_decoration_new, 0, 1),\n"
-          + "          ('trinity-of-light'::memorial_decoration_new, 3, 0),\n"
-          + "          ('veloria-lisianthus'::memorial_decoration_new, 0, 3)\n"
-          + "        ) AS dv(key, candles, flowers) ON dv.key = m.decoration_new\n"
-          + "        LEFT JOIN (VALUES\n"
-          + "          ('default'::memorial_tribute_v2, 0, 0),\n"
-          + "          ('amethyst-tranquility'::memorial_tribute_v2, 7, 4),\n"
-          + "          ('blossom-of-grace'::memorial_tribute_v2, 8, 5),\n"
-          + "          ('crimson-devotion'::memorial_tribute_v2, 7, 6),\n"
-          + "          ('flames-of-remembrance'::memorial_tribute_v2, 8, 0),\n"
-          + "          ('frostlight-harmony'::memorial_tribute_v2, 11, 4),\n"
-          + "          ('golden-serenity'::memorial_tribute_v2, 10, 8),\n"
-          + "          ('lunar-serenity'::memorial_tribute_v2, 7, 4),\n"
-          + "          ('midnight-serenity'::memorial_tribute_v2, 7, 10),\n"
-          + "          ('ocean-of-light'::memorial_tribute_v2, 13, 0),\n"
-          + "          ('royal-sunrise'::memorial_tribute_v2, 0, 11),\n"
-          + "          ('celestial-bloom'::memorial_tribute_v2, 9, 6),\n"
-          + "          ('midnight-elegy'::memorial_tribute_v2, 0, 17)\n"
-          + "        ) AS tv(key, candles, flowers) ON tv.key = m.asset_decoration_v2\n"
-          + "        WHERE m.memorial_id = id\n"
-          + "          AND m.status = 'published'\n"
-          + "      ), 0)\n"
-          + "      +\n"
-          + "      COALESCE((\n"
-          + "        SELECT COALESCE(SUM(\n"
-          + "          COALESCE(dv.flowers, 0)\n"
-          + "        ), 0)\n"
-          + "        FROM condolence c\n"
-          + "        LEFT JOIN (VALUES\n"
-          + "          ('amethera-rose'::memorial_decoration_new, 0, 1),\n"
-          + "          ('amethyst-ravel'::memorial_decoration_new, 0, 1),\n"
-          + "          ('aurelia-bloom'::memorial_decoration_new, 0, 1),\n"
-          + "          ('azure-peonia'::memorial_decoration_new, 0, 1),\n"
-          + "          ('celestia-lily'::memorial_decoration_new, 0, 1),\n"
-          + "          ('circle-of-serenity'::memorial_decoration_new, 6, 0),\n"
-          + "          ('coralia-hibiscus'::memorial_decoration_new, 0, 1),\n"
-          + "          ('frostaria-bloom'::memorial_decoration_new, 0, 1),\n"
-          + "          ('golden-reverie'::memorial_decoration_new, 0, 2),\n"
-          + "          ('ivory-whisper'::memorial_decoration_new, 0, 1),\n"
-          + "          ('lunaria-lily'::memorial_decoration_new, 0, 1),\n"
-          + "          ('nocturne-calla'::memorial_decoration_new, 0, 1),\n"
-          + "          ('rosalia-peony'::memorial_decoration_new, 0, 1),\n"
-          + "          ('seraphine-calla'::memorial_decoration_new, 0, 1),\n"
-          + "          ('solaria-bloom'::memorial_decoration_new, 0, 1),\n"
-          + "          ('solaris-hibiscus'::memorial_decoration_new, 0, 1),\n"
-          + "          ('sonata-bloom'::memorial_decoration_new, 0, 1),\n"
-          + "          ('trinity-of-light'::memorial_decoration_new, 3, 0),\n"
-          + "          ('veloria-lisianthus'::memorial_decoration_new, 0, 3)\n"
-          + "        ) AS dv(key, candles, flowers) ON dv.key = c.decoration_new\n"
-          + "        WHERE c.memorial_id = id\n"
-          + "          AND c.status = 'published'\n"
-          + "      ), 0)\n"
-          + "    )\n"
-          + "  )")
+  @Column(name = "total_flowers", insertable = false, updatable = false)
   private Integer totalFlowers;
 
-  @Formula(
-      "(\n"
-          + "    (\n"
-          + "      COALESCE((\n"
-          + "        SELECT t.candles\n"
-          + "        FROM (VALUES\n"
-          + "          ('default'::memorial_tribute_v2, 0, 0),\n"
-          + "          ('amethyst-tranquility'::memorial_tribute_v2, 7, 4),\n"
-          + "          ('blossom-of-grace'::memorial_tribute_v2, 8, 5),\n"
-          + "          ('crimson-devotion'::memorial_tribute_v2, 7, 6),\n"
-          + "          ('flames-of-remembrance'::memorial_tribute_v2, 8, 0),\n"
-          + "          ('frostlight-harmony'::memorial_tribute_v2, 11, 4),\n"
-          + "          ('golden-serenity'::memorial_tribute_v2, 10, 8),\n"
-          + "          ('lunar-serenity'::memorial_tribute_v2, 7, 4),\n"
-          + "          ('midnight-serenity'::memorial_tribute_v2, 7, 10),\n"
-          + "          ('ocean-of-light'::memorial_tribute_v2, 13, 0),\n"
-          + "          ('royal-sunrise'::memorial_tribute_v2, 0, 11),\n"
-          + "          ('celestial-bloom'::memorial_tribute_v2, 9, 6),\n"
-          + "          ('midnight-elegy'::memorial_tribute_v2, 0, 17)\n"
-          + "        ) AS t(key, candles, flowers)\n"
-          + "        WHERE t.key = tribute_v2\n"
-          + "          AND is_premium = true\n"
-          + "      ), 0)\n"
-          + "      +\n"
-          + "      COALESCE((\n"
-          + "        SELECT COALESCE(SUM(\n"
-          + "          COALESCE(dv.candles, 0) + COALESCE(tv.candles, 0)\n"
-          + "        ), 0)\n"
-          + "        FROM memory m\n"
-          + "        LEFT JOIN (VALUES\n"
-          + "          ('amethera-rose'::memorial_decoration_new, 0, 1),\n"
-          + "          ('amethyst-ravel'::memorial_decoration_new, 0, 1),\n"
-          + "          ('aurelia-bloom'::memorial_decoration_new, 0, 1),\n"
-          + "          ('azure-peonia'::memorial_decoration_new, 0, 1),\n"
-          + "          ('celestia-lily'::memorial_decoration_new, 0, 1),\n"
-          + "          ('circle-of-serenity'::memorial_decoration_new, 6, 0),\n"
-          + "          ('coralia-hibiscus'::memorial_decoration_new, 0, 1),\n"
-          + "          ('frostaria-bloom'::memorial_decoration_new, 0, 1),\n"
-          + "          ('golden-reverie'::memorial_decoration_new, 0, 2),\n"
-          + "          ('ivory-whisper'::memorial_decoration_new, 0, 1),\n"
-          + "          ('lunaria-lily'::memorial_decoration_new, 0, 1),\n"
-          + "          ('nocturne-calla'::memorial_decoration_new, 0, 1),\n"
-          + "          ('rosalia-peony'::memorial_decoration_new, 0, 1),\n"
-          + "          ('seraphine-calla'::memorial_decoration_new, 0, 1),\n"
-          + "          ('solaria-bloom'::memorial_decoration_new, 0, 1),\n"
-          + "          ('solaris-hibiscus'::memorial_decoration_new, 0, 1),\n"
-          + "          ('sonata-bloom'::memorial_decoration_new, 0, 1),\n"
-          + "          ('trinity-of-light'::memorial_decoration_new, 3, 0),\n"
-          + "          ('veloria-lisianthus'::memorial_decoration_new, 0, 3)\n"
-          + "        ) AS dv(key, candles, flowers) ON dv.key = m.decoration_new\n"
-          + "        LEFT JOIN (VALUES\n"
-          + "          ('default'::memorial_tribute_v2, 0, 0),\n"
-          + "          ('amethyst-tranquility'::memorial_tribute_v2, 7, 4),\n"
-          + "          ('blossom-of-grace'::memorial_tribute_v2, 8, 5),\n"
-          + "          ('crimson-devotion'::memorial_tribute_v2, 7, 6),\n"
-          + "          ('flames-of-remembrance'::memorial_tribute_v2, 8, 0),\n"
-          + "          ('frostlight-harmony'::memorial_tribute_v2, 11, 4),\n"
-          + "          ('golden-serenity'::memorial_tribute_v2, 10, 8),\n"
-          + "          ('lunar-serenity'::memorial_tribute_v2, 7, 4),\n"
-          + "          ('midnight-serenity'::memorial_tribute_v2, 7, 10),\n"
-          + "          ('ocean-of-light'::memorial_tribute_v2, 13, 0),\n"
-          + "          ('royal-sunrise'::memorial_tribute_v2, 0, 11),\n"
-          + "          ('celestial-bloom'::memorial_tribute_v2, 9, 6),\n"
-          + "          ('midnight-elegy'::memorial_tribute_v2, 0, 17)\n"
-          + "        ) AS tv(key, candles, flowers) ON tv.key = m.asset_decoration_v2\n"
-          + "        WHERE m.memorial_id = id\n"
-          + "          AND m.status = 'published'\n"
-          + "      ), 0)\n"
-          + "      +\n"
-          + "      COALESCE((\n"
-          + "        SELECT COALESCE(SUM(\n"
-          + "          COALESCE(dv.candles, 0)\n"
-          + "        ), 0)\n"
-          + "        FROM condolence c\n"
-          + "        LEFT JOIN (VALUES\n"
-          + "          ('amethera-rose'::memorial_decoration_new, 0, 1),\n"
-          + "          ('amethyst-ravel'::memorial_decoration_new, 0, 1),\n"
-          + "          ('aurelia-bloom'::memorial_decoration_new, 0, 1),\n"
-          + "          ('azure-peonia'::memorial_decoration_new, 0, 1),\n"
-          + "          ('celestia-lily'::memorial_decoration_new, 0, 1),\n"
-          + "          ('circle-of-serenity'::memorial_decoration_new, 6, 0),\n"
-          + "          ('coralia-hibiscus'::memorial_decoration_new, 0, 1),\n"
-          + "          ('frostaria-bloom'::memorial_decoration_new, 0, 1),\n"
-          + "          ('golden-reverie'::memorial_decoration_new, 0, 2),\n"
-          + "          ('ivory-whisper'::memorial_decoration_new, 0, 1),\n"
-          + "          ('lunaria-lily'::memorial_decoration_new, 0, 1),\n"
-          + "          ('nocturne-calla'::memorial_decoration_new, 0, 1),\n"
-          + "          ('rosalia-peony'::memorial_decoration_new, 0, 1),\n"
-          + "          ('seraphine-calla'::memorial_decoration_new, 0, 1),\n"
-          + "          ('solaria-bloom'::memorial_decoration_new, 0, 1),\n"
-          + "          ('solaris-hibiscus'::memorial_decoration_new, 0, 1),\n"
-          + "          ('sonata-bloom'::memorial_decoration_new, 0, 1),\n"
-          + "          ('trinity-of-light'::memorial_decoration_new, 3, 0),\n"
-          + "          ('veloria-lisianthus'::memorial_decoration_new, 0, 3)\n"
-          + "        ) AS dv(key, candles, flowers) ON dv.key = c.decoration_new\n"
-          + "        WHERE c.memorial_id = id\n"
-          + "          AND c.status = 'published'\n"
-          + "      ), 0)\n"
-          + "    )\n"
-          + "  )")
+  @Column(name = "total_candles", insertable = false, updatable = false)
   private Integer totalCandles;
 
-  @Formula(
-      "(SELECT COALESCE(SUM(d.item_count), 0) FROM donation d WHERE d.memorial_id = id AND d.status = 'published')")
+  @Column(name = "total_trees", insertable = false, updatable = false)
   private Long totalTrees;
 
-  @Formula(
-      "(SELECT COALESCE(SUM(d.value_in_cents), 0) FROM donation d WHERE d.memorial_id = id AND d.status = 'published')")
+  @Column(name = "total_donations_in_cents", insertable = false, updatable = false)
   private Long totalDonationsInCents;
 
   public UUID getId() {
@@ -89,6 +89,11 @@ public class AdminController {
     return adminService.removeFeaturedMemorial(adminUserId, id);
   }
 
+  @PostMapping("memorials/leaderboards/rebuild")
+  public Object rebuildMemorialLeaderboards(@RequestHeader("X-User-Id") String adminUserId) {
+    return adminService.rebuildMemorialLeaderboards(adminUserId);
+  }
+
   @GetMapping("contact-forms")
   public Object getOpenContactForms(@RequestHeader("X-User-Id") String adminUserId) {
     return adminService.getOpenContactForms(adminUserId);
@@ -90,6 +90,11 @@ public class AdminService {
     return memorialService.removeFeaturedMemorial(adminUserId, id);
   }
 
+  public Object rebuildMemorialLeaderboards(String adminUserId) {
+    adminRepository.verifyAdminAccess(adminUserId);
+    return memorialService.rebuildLeaderboards();
+  }
+
   public Object getOpenContactForms(String adminUserId) {
     adminRepository.verifyAdminAccess(adminUserId);
     return contactService.getOpenContactForms();
@@ -1,7 +1,11 @@
 package com.simmortal.ai;
 
 import com.simmortal.storage.StorageService;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -41,9 +45,13 @@ public class AiService {
     if (greeting == null) {
       return;
     }
-    deleteIfPresent(greeting.audioPath());
-    deleteIfPresent(greeting.imagePath());
-    greeting.voiceSamples().values().forEach(this::deleteIfPresent);
+    List<String> paths = new ArrayList<>(greeting.voiceSamples().values());
+    paths.add(greeting.audioPath());
+    paths.add(greeting.imagePath());
+    StorageService.DeleteResult result = storageService.deleteAll(paths);
+    if (result.hasFailures()) {
+      logger.warn("Failed to delete AI greeting assets for memorial {}: {}", memorialId, result.failed());
+    }
   }
 
   public String createMemorialVoice(String memorialId, List<MultipartFile> files) {
@@ -67,8 +75,12 @@ public class AiService {
   public String createMemorialGreetingAudio(String memorialId, String voiceId, String locale) {
     String normalizedLocale = normalizeLocale(locale);
     String path = buildAssetPath(memorialId, "greeting-audio", "greeting-" + voiceId + ".txt");
-    String payload = "AI greeting audio generation is pending.";
-    storageService.save(path, payload.getBytes(), "text/plain");
+    byte[] payload = "AI greeting audio generation is pending.".getBytes(StandardCharsets.UTF_8);
+    try {
+      storageService.save(path, new ByteArrayInputStream(payload), "text/plain", payload.length);
+    } catch (IOException ex) {
+      throw new IllegalStateException("Failed to store AI asset", ex);
+    }
     AiGreeting greeting = greetings.getOrDefault(memorialId, AiGreeting.empty());
     greetings.put(
         memorialId,
@@ -85,19 +97,13 @@ public class AiService {
   }
 
   private void storeFile(String path, MultipartFile file) {
-    try {
-      storageService.save(path, file.getBytes(), file.getContentType());
+    try (InputStream input = file.getInputStream()) {
+      storageService.save(path, input, file.getContentType(), file.getSize());
     } catch (IOException ex) {
       throw new IllegalStateException("Failed to store AI asset", ex);
     }
   }
 
-  private void deleteIfPresent(String path) {
-    if (path != null && !path.isBlank()) {
-      storageService.delete(path);
-    }
-  }
-
   private String normalizeLocale(String locale) {
     if (locale == null || locale.isBlank()) {
       return DEFAULT_LOCALE;
@@ -7,6 +7,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.server.ResponseStatusException;
 
 @RestController
@@ -21,28 +22,44 @@ public class AssetController {
   @GetMapping("/**")
   public void streamAsset(HttpServletRequest request, HttpServletResponse response) throws IOException {
     String assetPath = resolveAssetPath(request);
-    AssetService.AssetPayload payload = assetService.fetchAsset(assetPath, request.getHeader("Range"));
-
-    response.setContentType(payload.contentType());
+    AssetSource source = assetService.resolveAsset(assetPath, isConditional(request));
     response.setHeader("Cache-Control", "public, max-age=31536000, immutable");
+    if (new ServletWebRequest(request, response).checkNotModified(source.etag(), source.lastModified())) {
+      return;
+    }
+    AssetService.AssetPayload payload = assetService.fetchAsset(
+        assetPath,
+        source,
+        request.getHeader("Range"),
+        request.getHeader("If-Range")
+    );
+
+    response.setHeader("Accept-Ranges", "bytes");
     response.setHeader("Connection", "keep-alive");
 
+    if (!payload.satisfiable()) {
+      response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+      response.setHeader("Content-Range", "bytes */" + payload.totalSize());
+      return;
+    }
+
+    response.setContentType(payload.responseContentType());
     if (payload.partial()) {
       response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
-      response.setHeader("Accept-Ranges", "bytes");
-      response.setHeader(
-          "Content-Range",
-          String.format("bytes %d-%d/%d", payload.rangeStart(), payload.rangeEnd(), payload.totalSize())
-      );
-      response.setContentLength(payload.data().length);
-    } else {
-      if (payload.contentType().startsWith("video/")) {
-        response.setHeader("Accept-Ranges", "bytes");
+      if (payload.boundary() == null) {
+        response.setHeader("Content-Range", payload.contentRange());
       }
-      response.setContentLengthLong(payload.totalSize());
     }
 
-    response.getOutputStream().write(payload.data());
+    response.setContentLengthLong(payload.contentLength());
+    assetService.writeAsset(payload, response.getOutputStream());
+  }
+
+  private boolean isConditional(HttpServletRequest request) {
+    return request.getHeader("If-None-Match") != null
+        || request.getHeader("If-Modified-Since") != null
+        || request.getHeader("If-Match") != null
+        || request.getHeader("If-Unmodified-Since") != null;
   }
 
   private String resolveAssetPath(HttpServletRequest request) {
@@ -0,0 +1,331 @@
+package com.simmortal.asset;
+
+import com.simmortal.storage.StorageChangedEvent;
+import com.simmortal.storage.StorageService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+@Component
+public class AssetDiskCache {
+  private static final Logger logger = LoggerFactory.getLogger(AssetDiskCache.class);
+  private static final Pattern CACHE_FILE = Pattern.compile("[0-9a-f]{64}-\\d+|[0-9a-f-]{36}\\.tmp");
+
+  private final StorageService storageService;
+  private final boolean enabled;
+  private final Path directory;
+  private final long maxBytes;
+  private final long maxEntryBytes;
+  private final List<String> warmupPaths;
+  private final LinkedHashMap<String, AssetSource> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private final Map<String, CompletableFuture<AssetSource>> loading = new ConcurrentHashMap<>();
+  private final ThreadPoolExecutor fillExecutor;
+  private final Counter evictions;
+  private final Counter invalidations;
+  private final Counter fillsRejected;
+  private long totalBytes;
+
+  public AssetDiskCache(
+      StorageService storageService,
+      @Value("${app.asset.cache.disk.enabled:true}") boolean enabled,
+      @Value("${app.asset.cache.disk.directory:${java.io.tmpdir}/simmortal-asset-cache}") String directory,
+      @Value("${app.asset.cache.disk.max-size:2GB}") DataSize maxSize,
+      @Value("${app.asset.cache.disk.max-entry-size:64MB}") DataSize maxEntrySize,
+      @Value("${app.asset.cache.disk.warmup:}") List<String> warmupPaths,
+      @Value("${app.asset.cache.disk.fill-threads:2}") int fillThreads,
+      @Value("${app.asset.cache.disk.fill-queue-capacity:64}") int fillQueueCapacity,
+      MeterRegistry meterRegistry
+  ) {
+    this.storageService = storageService;
+    this.enabled = enabled;
+    this.directory = Path.of(directory);
+    this.maxBytes = maxSize.toBytes();
+    this.maxEntryBytes = Math.min(maxEntrySize.toBytes(), maxBytes);
+    this.warmupPaths = warmupPaths.stream().map(String::trim).filter(path -> !path.isEmpty()).toList();
+    AtomicInteger threadIndex = new AtomicInteger();
+    this.fillExecutor = new ThreadPoolExecutor(
+        Math.max(1, fillThreads),
+        Math.max(1, fillThreads),
+        60,
+        TimeUnit.SECONDS,
+        new ArrayBlockingQueue<>(Math.max(1, fillQueueCapacity)),
+        runnable -> {
+          Thread thread = new Thread(runnable, "asset-disk-fill-" + threadIndex.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        },
+        new ThreadPoolExecutor.AbortPolicy()
+    );
+    this.evictions = Counter.builder("asset.cache.disk.evictions")
+        .register(meterRegistry);
+    this.invalidations = Counter.builder("asset.cache.disk.invalidations")
+        .register(meterRegistry);
+    this.fillsRejected = Counter.builder("asset.cache.disk.fills.rejected")
+        .register(meterRegistry);
+    Gauge.builder("asset.cache.disk.size", this, AssetDiskCache::sizeBytes)
+        .baseUnit("bytes")
+        .register(meterRegistry);
+    if (enabled) {
+      resetDirectory();
+    }
+  }
+
+  public AssetSource get(String path) {
+    if (!enabled) {
+      return null;
+    }
+    synchronized (this) {
+      return entries.get(path);
+    }
+  }
+
+  public AssetSource load(String path, AssetSource source) {
+    if (!enabled || source.size() > maxEntryBytes) {
+      return null;
+    }
+    CompletableFuture<AssetSource> created = new CompletableFuture<>();
+    CompletableFuture<AssetSource> existing = loading.putIfAbsent(path, created);
+    if (existing != null) {
+      return existing.exceptionally(ex -> null).join();
+    }
+    return fill(path, source, created);
+  }
+
+  public void fillAsync(String path, AssetSource source) {
+    if (!enabled || source.size() > maxEntryBytes) {
+      return;
+    }
+    CompletableFuture<AssetSource> created = new CompletableFuture<>();
+    if (loading.putIfAbsent(path, created) != null) {
+      return;
+    }
+    try {
+      fillExecutor.execute(() -> fill(path, source, created));
+    } catch (RejectedExecutionException ex) {
+      fillsRejected.increment();
+      loading.remove(path, created);
+      created.complete(null);
+    }
+  }
+
+  public boolean transfer(AssetSource entry, long position, long count, OutputStream output) throws IOException {
+    FileChannel channel;
+    try {
+      channel = FileChannel.open(entry.file(), StandardOpenOption.READ);
+    } catch (NoSuchFileException ex) {
+      return false;
+    }
+    try (channel) {
+      WritableByteChannel target = Channels.newChannel(output);
+      long sent = 0;
+      while (sent < count) {
+        long transferred = channel.transferTo(position + sent, count - sent, target);
+        if (transferred <= 0) {
+          throw new IOException("Cached asset " + entry.file() + " ended after " + sent + " of " + count + " bytes");
+        }
+        sent += transferred;
+      }
+      return true;
+    }
+  }
+
+  public synchronized void renew(String path, AssetSource current, long checkedAt) {
+    if (entries.get(path) == current) {
+      entries.put(path, current.withCheckedAt(checkedAt));
+    }
+  }
+
+  public void invalidate(String path) {
+    onStorageChanged(new StorageChangedEvent(List.of(path), null));
+  }
+
+  @EventListener
+  public void onStorageChanged(StorageChangedEvent event) {
+    if (!enabled) {
+      return;
+    }
+    List<Path> removed = new ArrayList<>();
+    synchronized (this) {
+      loading.keySet().removeIf(event::affects);
+      Iterator<Map.Entry<String, AssetSource>> iterator = entries.entrySet().iterator();
+      while (iterator.hasNext()) {
+        Map.Entry<String, AssetSource> entry = iterator.next();
+        if (event.affects(entry.getKey())) {
+          iterator.remove();
+          totalBytes -= entry.getValue().size();
+          removed.add(entry.getValue().file());
+          invalidations.increment();
+        }
+      }
+    }
+    deleteFiles(removed);
+  }
+
+  public synchronized long sizeBytes() {
+    return totalBytes;
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    fillExecutor.shutdownNow();
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void warmup() {
+    if (!enabled || warmupPaths.isEmpty()) {
+      return;
+    }
+    int cached = 0;
+    for (String path : warmupPaths) {
+      try {
+        StorageService.StorageObjectInfo info = storageService.describe(path);
+        if (info != null && load(path, AssetSource.of(info)) != null) {
+          cached++;
+        }
+      } catch (RuntimeException ex) {
+        logger.warn("Failed to warm asset {}", path, ex);
+      }
+    }
+    logger.info("Warmed {} of {} assets into the disk cache", cached, warmupPaths.size());
+  }
+
+  private AssetSource fill(String path, AssetSource source, CompletableFuture<AssetSource> created) {
+    try {
+      AssetSource entry = download(path, source, created);
+      created.complete(entry);
+      return entry;
+    } catch (IOException | RuntimeException ex) {
+      logger.warn("Failed to cache asset {} on disk", path, ex);
+      created.complete(null);
+      return null;
+    } finally {
+      loading.remove(path, created);
+    }
+  }
+
+  private AssetSource download(String path, AssetSource source, CompletableFuture<AssetSource> created)
+      throws IOException {
+    Path target = directory.resolve(fileName(path, source.generation()));
+    Path temp = directory.resolve(UUID.randomUUID() + ".tmp");
+    try (OutputStream output = Files.newOutputStream(temp, StandardOpenOption.CREATE_NEW)) {
+      long copied = storageService.copyRange(path, source.generation(), 0, source.size(), output);
+      if (copied != source.size()) {
+        throw new IOException("Short read while caching " + path);
+      }
+    } catch (IOException | RuntimeException ex) {
+      Files.deleteIfExists(temp);
+      throw ex;
+    }
+    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    AssetSource entry = source.withFile(target);
+    if (!admit(path, entry, created)) {
+      AssetSource current = get(path);
+      if (current == null || !target.equals(current.file())) {
+        Files.deleteIfExists(target);
+      }
+      return null;
+    }
+    return entry;
+  }
+
+  private boolean admit(String path, AssetSource entry, CompletableFuture<AssetSource> created) {
+    List<Path> evicted = new ArrayList<>();
+    synchronized (this) {
+      if (loading.get(path) != created) {
+        return false;
+      }
+      AssetSource previous = entries.put(path, entry);
+      if (previous != null) {
+        totalBytes -= previous.size();
+        if (!previous.file().equals(entry.file())) {
+          evicted.add(previous.file());
+        }
+      }
+      totalBytes += entry.size();
+      Iterator<Map.Entry<String, AssetSource>> eldest = entries.entrySet().iterator();
+      while (totalBytes > maxBytes && eldest.hasNext()) {
+        Map.Entry<String, AssetSource> candidate = eldest.next();
+        if (candidate.getValue() == entry) {
+          continue;
+        }
+        eldest.remove();
+        totalBytes -= candidate.getValue().size();
+        evicted.add(candidate.getValue().file());
+        evictions.increment();
+      }
+    }
+    deleteFiles(evicted);
+    return true;
+  }
+
+  private void deleteFiles(List<Path> files) {
+    for (Path file : files) {
+      try {
+        Files.deleteIfExists(file);
+      } catch (IOException ex) {
+        logger.warn("Failed to delete evicted asset {}", file, ex);
+      }
+    }
+  }
+
+  private void resetDirectory() {
+    try {
+      Files.createDirectories(directory);
+      try (Stream<Path> files = Files.list(directory)) {
+        for (Path file : (Iterable<Path>) files::iterator) {
+          if (CACHE_FILE.matcher(file.getFileName().toString()).matches()) {
+            Files.deleteIfExists(file);
+          }
+        }
+      }
+    } catch (IOException ex) {
+      throw new IllegalStateException("Unable to prepare asset cache directory " + directory, ex);
+    }
+  }
+
+  private String fileName(String path, Long generation) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(path.getBytes(StandardCharsets.UTF_8));
+      return HexFormat.of().formatHex(digest) + "-" + (generation == null ? 0 : generation);
+    } catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException("SHA-256 not available", ex);
+    }
+  }
+}
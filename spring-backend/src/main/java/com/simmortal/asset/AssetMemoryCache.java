@@ -0,0 +1,152 @@
+package com.simmortal.asset;
+
+import com.simmortal.storage.StorageChangedEvent;
+import com.simmortal.storage.StorageService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+@Component
+public class AssetMemoryCache {
+  private final StorageService storageService;
+  private final long maxBytes;
+  private final long maxEntryBytes;
+  private final LinkedHashMap<String, AssetSource> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private final Map<String, CompletableFuture<AssetSource>> loading = new ConcurrentHashMap<>();
+  private final Counter evictions;
+  private final Counter invalidations;
+  private final Counter coalesced;
+  private long totalBytes;
+
+  public AssetMemoryCache(
+      StorageService storageService,
+      @Value("${app.asset.cache.memory.max-size:64MB}") DataSize maxSize,
+      @Value("${app.asset.cache.memory.max-entry-size:512KB}") DataSize maxEntrySize,
+      MeterRegistry meterRegistry
+  ) {
+    this.storageService = storageService;
+    this.maxBytes = maxSize.toBytes();
+    this.maxEntryBytes = Math.min(maxEntrySize.toBytes(), maxBytes);
+    this.evictions = Counter.builder("asset.cache.memory.evictions")
+        .register(meterRegistry);
+    this.invalidations = Counter.builder("asset.cache.memory.invalidations")
+        .register(meterRegistry);
+    this.coalesced = Counter.builder("asset.cache.memory.coalesced")
+        .register(meterRegistry);
+    Gauge.builder("asset.cache.memory.size", this, AssetMemoryCache::sizeBytes)
+        .baseUnit("bytes")
+        .register(meterRegistry);
+  }
+
+  public synchronized AssetSource get(String path) {
+    return entries.get(path);
+  }
+
+  public AssetSource load(String path) {
+    CompletableFuture<AssetSource> created = new CompletableFuture<>();
+    CompletableFuture<AssetSource> existing = loading.putIfAbsent(path, created);
+    if (existing != null) {
+      coalesced.increment();
+      try {
+        return existing.join();
+      } catch (CompletionException ex) {
+        throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+      }
+    }
+    try {
+      AssetSource entry = fetch(path, created);
+      created.complete(entry);
+      return entry;
+    } catch (IOException ex) {
+      IllegalStateException failure = new IllegalStateException("Failed to load asset " + path, ex);
+      created.completeExceptionally(failure);
+      throw failure;
+    } catch (RuntimeException ex) {
+      created.completeExceptionally(ex);
+      throw ex;
+    } finally {
+      loading.remove(path, created);
+    }
+  }
+
+  public synchronized void renew(String path, AssetSource current, long checkedAt) {
+    if (entries.get(path) == current) {
+      entries.put(path, current.withCheckedAt(checkedAt));
+    }
+  }
+
+  public void invalidate(String path) {
+    onStorageChanged(new StorageChangedEvent(List.of(path), null));
+  }
+
+  @EventListener
+  public synchronized void onStorageChanged(StorageChangedEvent event) {
+    loading.keySet().removeIf(event::affects);
+    Iterator<Map.Entry<String, AssetSource>> iterator = entries.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Map.Entry<String, AssetSource> entry = iterator.next();
+      if (event.affects(entry.getKey())) {
+        iterator.remove();
+        totalBytes -= entry.getValue().size();
+        invalidations.increment();
+      }
+    }
+  }
+
+  public synchronized long sizeBytes() {
+    return totalBytes;
+  }
+
+  private AssetSource fetch(String path, CompletableFuture<AssetSource> created) throws IOException {
+    StorageService.StorageObjectInfo info = storageService.describe(path);
+    if (info == null) {
+      return null;
+    }
+    AssetSource source = AssetSource.of(info);
+    if (info.size() > maxEntryBytes) {
+      return source;
+    }
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream((int) info.size());
+    long copied = storageService.copyRange(path, info.generation(), 0, info.size(), buffer);
+    if (copied != info.size()) {
+      throw new IOException("Short read while loading " + path);
+    }
+    AssetSource entry = source.withData(buffer.toByteArray());
+    admit(path, entry, created);
+    return entry;
+  }
+
+  private synchronized void admit(String path, AssetSource entry, CompletableFuture<AssetSource> created) {
+    if (loading.get(path) != created) {
+      return;
+    }
+    AssetSource previous = entries.put(path, entry);
+    if (previous != null) {
+      totalBytes -= previous.size();
+    }
+    totalBytes += entry.size();
+    Iterator<Map.Entry<String, AssetSource>> eldest = entries.entrySet().iterator();
+    while (totalBytes > maxBytes && eldest.hasNext()) {
+      Map.Entry<String, AssetSource> candidate = eldest.next();
+      if (candidate.getValue() == entry) {
+        continue;
+      }
+      eldest.remove();
+      totalBytes -= candidate.getValue().size();
+      evictions.increment();
+    }
+  }
+}
@@ -0,0 +1,120 @@
+package com.simmortal.asset;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+final class AssetRanges {
+  private static final String UNIT_PREFIX = "bytes=";
+  private static final int MAX_RANGES = 16;
+
+  private AssetRanges() {}
+
+  static List<ByteRange> parse(String header, long totalSize) {
+    if (header == null || !header.regionMatches(true, 0, UNIT_PREFIX, 0, UNIT_PREFIX.length())) {
+      return null;
+    }
+    String[] specs = header.substring(UNIT_PREFIX.length()).split(",");
+    List<ByteRange> ranges = new ArrayList<>();
+    int requested = 0;
+    for (String raw : specs) {
+      String spec = raw.trim();
+      if (spec.isEmpty()) {
+        continue;
+      }
+      if (++requested > MAX_RANGES) {
+        return null;
+      }
+      int dash = spec.indexOf('-');
+      if (dash < 0) {
+        return null;
+      }
+      String first = spec.substring(0, dash).trim();
+      String last = spec.substring(dash + 1).trim();
+      if (first.isEmpty()) {
+        long suffix = parsePosition(last);
+        if (suffix < 0) {
+          return null;
+        }
+        if (suffix > 0 && totalSize > 0) {
+          ranges.add(new ByteRange(Math.max(0, totalSize - suffix), totalSize - 1));
+        }
+        continue;
+      }
+      long start = parsePosition(first);
+      long end = last.isEmpty() ? Long.MAX_VALUE : parsePosition(last);
+      if (start < 0 || end < 0 || end < start) {
+        return null;
+      }
+      if (start < totalSize) {
+        ranges.add(new ByteRange(start, Math.min(end, totalSize - 1)));
+      }
+    }
+    if (requested == 0) {
+      return null;
+    }
+    return ranges.size() > 1 ? coalesce(ranges) : ranges;
+  }
+
+  static boolean ifRangeMatches(String ifRange, AssetSource source) {
+    if (ifRange == null) {
+      return true;
+    }
+    String value = ifRange.trim();
+    if (value.startsWith("\"")) {
+      return value.equals(source.etag());
+    }
+    if (value.startsWith("W/")) {
+      return false;
+    }
+    try {
+      long date = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+      return source.lastModified() >= 0 && source.lastModified() / 1000 == date / 1000;
+    } catch (DateTimeParseException ex) {
+      return false;
+    }
+  }
+
+  private static List<ByteRange> coalesce(List<ByteRange> ranges) {
+    List<ByteRange> sorted = new ArrayList<>(ranges);
+    sorted.sort(Comparator.comparingLong(ByteRange::start));
+    List<ByteRange> merged = new ArrayList<>();
+    ByteRange current = sorted.get(0);
+    for (int i = 1; i < sorted.size(); i++) {
+      ByteRange next = sorted.get(i);
+      if (next.start() <= current.end() + 1) {
+        current = new ByteRange(current.start(), Math.max(current.end(), next.end()));
+      } else {
+        merged.add(current);
+        current = next;
+      }
+    }
+    merged.add(current);
+    return merged;
+  }
+
+  private static long parsePosition(String value) {
+    if (value.isEmpty()) {
+      return -1;
+    }
+    for (int i = 0; i < value.length(); i++) {
+      if (value.charAt(i) < '0' || value.charAt(i) > '9') {
+        return -1;
+      }
+    }
+    try {
+      return Long.parseLong(value);
+    } catch (NumberFormatException ex) {
+      return Long.MAX_VALUE;
+    }
+  }
+
+  record ByteRange(long start, long end) {
+    long length() {
+      return end - start + 1;
+    }
+  }
+}
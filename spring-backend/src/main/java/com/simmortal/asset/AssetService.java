@@ -1,7 +1,16 @@
 package com.simmortal.asset;
 
 import com.simmortal.storage.StorageService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
@@ -9,57 +18,189 @@ import org.springframework.web.server.ResponseStatusException;
 @Service
 public class AssetService {
   private final StorageService storageService;
+  private final AssetMemoryCache memoryCache;
+  private final AssetDiskCache diskCache;
+  private final long revalidateMillis;
+  private final Counter memoryHits;
+  private final Counter diskHits;
+  private final Counter misses;
+  private final Counter revalidatedFresh;
+  private final Counter revalidatedStale;
 
-  public AssetService(StorageService storageService) {
+  public AssetService(
+      StorageService storageService,
+      AssetMemoryCache memoryCache,
+      AssetDiskCache diskCache,
+      @Value("${app.asset.cache.revalidate-after:60s}") Duration revalidateAfter,
+      MeterRegistry meterRegistry
+  ) {
     this.storageService = storageService;
+    this.memoryCache = memoryCache;
+    this.diskCache = diskCache;
+    this.revalidateMillis = revalidateAfter.toMillis();
+    this.memoryHits = Counter.builder("asset.cache.requests")
+        .tag("result", "memory")
+        .register(meterRegistry);
+    this.diskHits = Counter.builder("asset.cache.requests")
+        .tag("result", "disk")
+        .register(meterRegistry);
+    this.misses = Counter.builder("asset.cache.requests")
+        .tag("result", "miss")
+        .register(meterRegistry);
+    this.revalidatedFresh = Counter.builder("asset.cache.revalidations")
+        .tag("result", "fresh")
+        .register(meterRegistry);
+    this.revalidatedStale = Counter.builder("asset.cache.revalidations")
+        .tag("result", "stale")
+        .register(meterRegistry);
   }
 
-  public AssetPayload fetchAsset(String path, String rangeHeader) {
-    StorageService.StorageObject storageObject = storageService.download(path);
-    if (storageObject == null || storageObject.data() == null) {
+  public AssetSource resolveAsset(String path, boolean conditional) {
+    AssetSource source = revalidate(path, memoryCache.get(path), true);
+    if (source != null) {
+      memoryHits.increment();
+    } else {
+      source = revalidate(path, diskCache.get(path), false);
+      if (source != null) {
+        diskHits.increment();
+      } else {
+        misses.increment();
+        source = conditional ? describeSource(path) : loadSource(path);
+      }
+    }
+    if (source == null) {
       throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Asset not found or inaccessible");
     }
+    return source;
+  }
 
-    String contentType = Optional.ofNullable(storageObject.contentType())
+  public AssetPayload fetchAsset(String path, AssetSource source, String rangeHeader, String ifRange) {
+    String contentType = Optional.ofNullable(source.contentType())
         .orElse("application/octet-stream");
-    byte[] data = storageObject.data();
-    long totalSize = data.length;
-    boolean isVideo = contentType.startsWith("video/");
-
-    if (isVideo && rangeHeader != null && rangeHeader.startsWith("bytes=")) {
-      String rangeValue = rangeHeader.replace("bytes=", "").trim();
-      String[] parts = rangeValue.split("-", 2);
-      long start = parseRangePart(parts[0], 0);
-      long end = parts.length > 1 && !parts[1].isBlank() ? parseRangePart(parts[1], totalSize - 1) : totalSize - 1;
-
-      if (start > end || end >= totalSize) {
-        throw new ResponseStatusException(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE, "Invalid range");
-      }
+    long totalSize = source.size();
+    List<AssetRanges.ByteRange> full = totalSize > 0
+        ? List.of(new AssetRanges.ByteRange(0, totalSize - 1))
+        : List.of();
 
-      byte[] slice = java.util.Arrays.copyOfRange(data, (int) start, (int) end + 1);
-      return new AssetPayload(slice, contentType, totalSize, start, end, true);
+    List<AssetRanges.ByteRange> ranges = AssetRanges.ifRangeMatches(ifRange, source)
+        ? AssetRanges.parse(rangeHeader, totalSize)
+        : null;
+    if (ranges == null) {
+      return new AssetPayload(path, source, contentType, totalSize, full, false, null);
+    }
+    if (ranges.isEmpty()) {
+      return new AssetPayload(path, source, contentType, totalSize, ranges, true, null);
     }
+    String boundary = ranges.size() > 1 ? UUID.randomUUID().toString().replace("-", "") : null;
+    return new AssetPayload(path, source, contentType, totalSize, ranges, true, boundary);
+  }
 
-    return new AssetPayload(data, contentType, totalSize, null, null, false);
+  public void writeAsset(AssetPayload payload, OutputStream output) throws IOException {
+    if (payload.boundary() == null) {
+      for (AssetRanges.ByteRange range : payload.ranges()) {
+        writeRange(payload, range, output);
+      }
+      return;
+    }
+    for (AssetRanges.ByteRange range : payload.ranges()) {
+      output.write(payload.partHeader(range).getBytes(StandardCharsets.US_ASCII));
+      writeRange(payload, range, output);
+    }
+    output.write(payload.closingDelimiter().getBytes(StandardCharsets.US_ASCII));
   }
 
-  private long parseRangePart(String value, long fallback) {
-    if (value == null || value.isBlank()) {
-      return fallback;
+  private void writeRange(AssetPayload payload, AssetRanges.ByteRange range, OutputStream output)
+      throws IOException {
+    AssetSource source = payload.source();
+    if (source.data() != null) {
+      output.write(source.data(), Math.toIntExact(range.start()), Math.toIntExact(range.length()));
+      return;
     }
-    try {
-      return Long.parseLong(value);
-    } catch (NumberFormatException ex) {
-      return fallback;
+    if (source.file() != null && diskCache.transfer(source, range.start(), range.length(), output)) {
+      return;
+    }
+    storageService.copyRange(payload.path(), source.generation(), range.start(), range.length(), output);
+  }
+
+  private AssetSource revalidate(String path, AssetSource cached, boolean memoryTier) {
+    long now = System.currentTimeMillis();
+    if (cached == null || !cached.isStale(now, revalidateMillis)) {
+      return cached;
+    }
+    StorageService.StorageObjectInfo info = storageService.describe(path);
+    if (!cached.sameObject(info)) {
+      revalidatedStale.increment();
+      memoryCache.invalidate(path);
+      diskCache.invalidate(path);
+      return null;
+    }
+    revalidatedFresh.increment();
+    if (memoryTier) {
+      memoryCache.renew(path, cached, now);
+    } else {
+      diskCache.renew(path, cached, now);
+    }
+    return cached;
+  }
+
+  private AssetSource describeSource(String path) {
+    StorageService.StorageObjectInfo info = storageService.describe(path);
+    return info == null ? null : AssetSource.of(info);
+  }
+
+  private AssetSource loadSource(String path) {
+    AssetSource source = memoryCache.load(path);
+    if (source != null && !source.isLoaded()) {
+      diskCache.fillAsync(path, source);
     }
+    return source;
   }
 
   public record AssetPayload(
-      byte[] data,
+      String path,
+      AssetSource source,
       String contentType,
       long totalSize,
-      Long rangeStart,
-      Long rangeEnd,
-      boolean partial
-  ) {}
+      List<AssetRanges.ByteRange> ranges,
+      boolean rangeRequested,
+      String boundary
+  ) {
+    public boolean satisfiable() {
+      return !rangeRequested || !ranges.isEmpty();
+    }
+
+    public boolean partial() {
+      return rangeRequested && !ranges.isEmpty();
+    }
+
+    public String responseContentType() {
+      return boundary == null ? contentType : "multipart/byteranges; boundary=" + boundary;
+    }
+
+    public String contentRange() {
+      AssetRanges.ByteRange range = ranges.get(0);
+      return "bytes " + range.start() + "-" + range.end() + "/" + totalSize;
+    }
+
+    public long contentLength() {
+      long length = 0;
+      for (AssetRanges.ByteRange range : ranges) {
+        length += range.length();
+        if (boundary != null) {
+          length += partHeader(range).length();
+        }
+      }
+      return boundary == null ? length : length + closingDelimiter().length();
+    }
+
+    String partHeader(AssetRanges.ByteRange range) {
+      return "\r\n--" + boundary + "\r\n"
+          + "Content-Type: " + contentType + "\r\n"
+          + "Content-Range: bytes " + range.start() + "-" + range.end() + "/" + totalSize + "\r\n\r\n";
+    }
+
+    String closingDelimiter() {
+      return "\r\n--" + boundary + "--\r\n";
+    }
+  }
 }
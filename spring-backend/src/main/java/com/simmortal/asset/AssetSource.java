@@ -0,0 +1,69 @@
+package com.simmortal.asset;
+
+import com.simmortal.storage.StorageService;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Objects;
+
+public record AssetSource(
+    String contentType,
+    long size,
+    Long generation,
+    String etag,
+    long lastModified,
+    byte[] data,
+    Path file,
+    long checkedAt
+) {
+  static AssetSource of(StorageService.StorageObjectInfo info) {
+    return new AssetSource(
+        info.contentType(),
+        info.size(),
+        info.generation(),
+        etagOf(info),
+        info.updated() == null ? -1 : info.updated(),
+        null,
+        null,
+        System.currentTimeMillis()
+    );
+  }
+
+  boolean isLoaded() {
+    return data != null || file != null;
+  }
+
+  boolean isStale(long now, long revalidateMillis) {
+    return now - checkedAt >= revalidateMillis;
+  }
+
+  boolean sameObject(StorageService.StorageObjectInfo info) {
+    return info != null
+        && info.size() == size
+        && Objects.equals(info.generation(), generation)
+        && Objects.equals(etagOf(info), etag);
+  }
+
+  AssetSource withData(byte[] data) {
+    return new AssetSource(contentType, size, generation, etag, lastModified, data, null, checkedAt);
+  }
+
+  AssetSource withFile(Path file) {
+    return new AssetSource(contentType, size, generation, etag, lastModified, null, file, checkedAt);
+  }
+
+  AssetSource withCheckedAt(long checkedAt) {
+    return new AssetSource(contentType, size, generation, etag, lastModified, data, file, checkedAt);
+  }
+
+  private static String etagOf(StorageService.StorageObjectInfo info) {
+    if (info.md5() != null && !info.md5().isBlank()) {
+      try {
+        return "\"" + HexFormat.of().formatHex(Base64.getDecoder().decode(info.md5())) + "\"";
+      } catch (IllegalArgumentException ex) {
+        return "\"" + info.md5() + "\"";
+      }
+    }
+    return info.generation() == null ? null : "\"g" + info.generation() + "\"";
+  }
+}
@@ -1,6 +1,7 @@
 package com.simmortal.memorial;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -9,32 +10,65 @@ import org.springframework.stereotype.Repository;
 @Repository
 public class CondolenceRepository {
   private final Map<String, Map<String, Object>> condolences = new ConcurrentHashMap<>();
+  private final ContributionIndex ownedIndex = new ContributionIndex();
+  private final ContributionIndex likedIndex = new ContributionIndex();
+  private final MemorialLeaderboards leaderboards;
+
+  public CondolenceRepository(MemorialLeaderboards leaderboards) {
+    this.leaderboards = leaderboards;
+  }
 
   public Object getCondolenceById(String id) {
     return condolences.get(id);
   }
 
   public Map<String, Object> save(Map<String, Object> condolence) {
-    condolences.put(condolence.get("id").toString(), condolence);
+    String id = condolence.get("id").toString();
+    condolences.put(id, condolence);
+    ContributionIndex.Key key = ContributionIndex.keyOf(condolence);
+    Object userId = condolence.get("userId");
+    ownedIndex.index(id, userId == null ? null : userId.toString(), key);
+    likedIndex.index(id, ContributionIndex.likersOf(condolence), key);
+    leaderboards.replace("condolence:" + id, MemorialLeaderboards.condolence(condolence));
     return condolence;
   }
 
-  public List<Map<String, Object>> listOwned(String userId) {
-    List<Map<String, Object>> results = new ArrayList<>();
-    for (Map<String, Object> condolence : condolences.values()) {
-      if (userId.equals(condolence.get("userId"))) {
-        results.add(condolence);
-      }
-    }
-    return results;
+  public List<Map<String, Object>> getAllCondolences() {
+    return new ArrayList<>(condolences.values());
+  }
+
+  public long countLikes(String id) {
+    return ownedIndex.likes(id);
+  }
+
+  public List<Map<String, Object>> pageOwned(
+      String userId,
+      MemorialContributionSortField sort,
+      boolean descending,
+      ContributionIndex.Key after,
+      int limit
+  ) {
+    return resolve(ownedIndex.page(userId, sort, descending, after, limit));
+  }
+
+  public List<Map<String, Object>> pageLiked(
+      String userId,
+      MemorialContributionSortField sort,
+      boolean descending,
+      ContributionIndex.Key after,
+      int limit
+  ) {
+    return resolve(likedIndex.page(userId, sort, descending, after, limit));
   }
 
-  public List<Map<String, Object>> listLiked(String userId) {
-    List<Map<String, Object>> results = new ArrayList<>();
-    for (Map<String, Object> condolence : condolences.values()) {
-      Object likedBy = condolence.get("likedBy");
-      if (likedBy instanceof List<?> list && list.contains(userId)) {
-        results.add(condolence);
+  private List<Map<String, Object>> resolve(List<String> ids) {
+    List<Map<String, Object>> results = new ArrayList<>(ids.size());
+    for (String id : ids) {
+      Map<String, Object> condolence = condolences.get(id);
+      if (condolence != null) {
+        Map<String, Object> item = new HashMap<>(condolence);
+        item.put("totalLikes", countLikes(id));
+        results.add(item);
       }
     }
     return results;
@@ -1,18 +1,23 @@
 package com.simmortal.memorial;
 
 import java.time.Instant;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 @Service
 public class CondolenceService {
   private final CondolenceRepository condolenceRepository;
+  private final int pageSize;
 
-  public CondolenceService(CondolenceRepository condolenceRepository) {
+  public CondolenceService(
+      CondolenceRepository condolenceRepository,
+      @Value("${app.memorial.contributions.page-size:20}") int pageSize
+  ) {
     this.condolenceRepository = condolenceRepository;
+    this.pageSize = Math.max(1, pageSize);
   }
 
   public Object getLikedCondolences(
@@ -21,8 +26,15 @@ public class CondolenceService {
       String order,
       String userId
   ) {
-    List<Map<String, Object>> items = applySort(condolenceRepository.listLiked(userId), sort, order);
-    return buildPagedResponse(items, cursor);
+    MemorialContributionSortField field = ContributionPages.sortOrDefault(sort);
+    List<Map<String, Object>> items = condolenceRepository.pageLiked(
+        userId,
+        field,
+        ContributionPages.isDescending(order),
+        ContributionPages.decode(cursor, field),
+        pageSize + 1
+    );
+    return ContributionPages.response(items, field, pageSize);
   }
 
   public Object getOwnedCondolences(
@@ -31,8 +43,15 @@ public class CondolenceService {
       String order,
       String userId
   ) {
-    List<Map<String, Object>> items = applySort(condolenceRepository.listOwned(userId), sort, order);
-    return buildPagedResponse(items, cursor);
+    MemorialContributionSortField field = ContributionPages.sortOrDefault(sort);
+    List<Map<String, Object>> items = condolenceRepository.pageOwned(
+        userId,
+        field,
+        ContributionPages.isDescending(order),
+        ContributionPages.decode(cursor, field),
+        pageSize + 1
+    );
+    return ContributionPages.response(items, field, pageSize);
   }
 
   public Object getCondolenceById(String id) {
@@ -46,31 +65,4 @@ public class CondolenceService {
     }
     return condolence;
   }
-
-  private List<Map<String, Object>> applySort(
-      List<Map<String, Object>> items,
-      MemorialContributionSortField sort,
-      String order
-  ) {
-    Comparator<Map<String, Object>> comparator = Comparator.comparing(
-        item -> item.getOrDefault("createdAt", "").toString()
-    );
-    if (sort == MemorialContributionSortField.LIKES) {
-      comparator = Comparator.comparing(
-          item -> ((Number) item.getOrDefault("totalLikes", 0)).intValue()
-      );
-    }
-    if ("DESC".equalsIgnoreCase(order)) {
-      comparator = comparator.reversed();
-    }
-    items.sort(comparator);
-    return items;
-  }
-
-  private Map<String, Object> buildPagedResponse(List<Map<String, Object>> items, String cursor) {
-    Map<String, Object> response = new HashMap<>();
-    response.put("items", items);
-    response.put("nextCursor", null);
-    return response;
-  }
 }
@@ -0,0 +1,153 @@
+package com.simmortal.memorial;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+class ContributionIndex {
+  private static final Comparator<Key> BY_DATE = Comparator
+      .comparing(Key::createdAt)
+      .thenComparing(Key::id);
+  private static final Comparator<Key> BY_LIKES = Comparator
+      .comparingLong(Key::likes)
+      .thenComparing(Key::id);
+
+  private final Map<String, NavigableSet<Key>> byDate = new ConcurrentHashMap<>();
+  private final Map<String, NavigableSet<Key>> byLikes = new ConcurrentHashMap<>();
+  private final Map<String, Placement> placements = new ConcurrentHashMap<>();
+
+  void index(String id, String group, Key key) {
+    index(id, group == null ? Set.of() : Set.of(group), key);
+  }
+
+  synchronized void index(String id, Set<String> groups, Key key) {
+    Placement next = groups.isEmpty() || key == null ? null : new Placement(Set.copyOf(groups), key);
+    Placement previous = next == null ? placements.remove(id) : placements.put(id, next);
+    if (Objects.equals(previous, next)) {
+      return;
+    }
+    boolean dateChanged = previous != null && next != null
+        && !previous.key().createdAt().equals(next.key().createdAt());
+    boolean likesChanged = previous != null && next != null
+        && previous.key().likes() != next.key().likes();
+    if (previous != null) {
+      for (String group : previous.groups()) {
+        boolean kept = next != null && next.groups().contains(group);
+        if (!kept || dateChanged) {
+          detach(byDate, group, previous.key());
+        }
+        if (!kept || dateChanged || likesChanged) {
+          detach(byLikes, group, previous.key());
+        }
+        if (kept && dateChanged) {
+          attach(byDate, group, next.key(), BY_DATE);
+        }
+        if (kept && (dateChanged || likesChanged)) {
+          attach(byLikes, group, next.key(), BY_LIKES);
+        }
+      }
+    }
+    if (next != null) {
+      for (String group : next.groups()) {
+        if (previous == null || !previous.groups().contains(group)) {
+          attach(byDate, group, next.key(), BY_DATE);
+          attach(byLikes, group, next.key(), BY_LIKES);
+        }
+      }
+    }
+  }
+
+  long likes(String id) {
+    Placement placement = placements.get(id);
+    return placement == null ? 0 : placement.key().likes();
+  }
+
+  void remove(String id) {
+    index(id, Set.of(), null);
+  }
+
+  List<String> page(
+      String group,
+      MemorialContributionSortField sort,
+      boolean descending,
+      Key after,
+      int limit
+  ) {
+    NavigableSet<Key> keys = (sort == MemorialContributionSortField.LIKES ? byLikes : byDate).get(group);
+    if (keys == null || limit <= 0) {
+      return List.of();
+    }
+    NavigableSet<Key> ordered = descending ? keys.descendingSet() : keys;
+    if (after != null) {
+      ordered = ordered.tailSet(after, false);
+    }
+    List<String> ids = new ArrayList<>(Math.min(limit, 64));
+    for (Key key : ordered) {
+      ids.add(key.id());
+      if (ids.size() == limit) {
+        break;
+      }
+    }
+    return ids;
+  }
+
+  static Key keyOf(Map<String, Object> item) {
+    Object id = item.get("id");
+    if (id == null) {
+      return null;
+    }
+    Set<String> likers = likersOf(item);
+    Object totalLikes = item.get("totalLikes");
+    long likes = totalLikes instanceof Number number ? number.longValue() : 0;
+    return new Key(
+        item.getOrDefault("createdAt", "").toString(),
+        likers.isEmpty() ? likes : likers.size(),
+        id.toString()
+    );
+  }
+
+  static Set<String> likersOf(Map<String, Object> item) {
+    if (!(item.get("likedBy") instanceof Collection<?> likedBy) || likedBy.isEmpty()) {
+      return Set.of();
+    }
+    Set<String> likers = new HashSet<>();
+    for (Object userId : likedBy) {
+      if (userId != null) {
+        likers.add(userId.toString());
+      }
+    }
+    return likers;
+  }
+
+  private static void attach(
+      Map<String, NavigableSet<Key>> sets,
+      String group,
+      Key key,
+      Comparator<Key> comparator
+  ) {
+    sets.compute(group, (ignored, keys) -> {
+      NavigableSet<Key> target = keys == null ? new ConcurrentSkipListSet<>(comparator) : keys;
+      target.add(key);
+      return target;
+    });
+  }
+
+  private static void detach(Map<String, NavigableSet<Key>> sets, String group, Key key) {
+    sets.computeIfPresent(group, (ignored, keys) -> {
+      keys.remove(key);
+      return keys.isEmpty() ? null : keys;
+    });
+  }
+
+  record Key(String createdAt, long likes, String id) {}
+
+  private record Placement(Set<String> groups, Key key) {}
+}
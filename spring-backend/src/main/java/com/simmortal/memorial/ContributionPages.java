@@ -0,0 +1,84 @@
+package com.simmortal.memorial;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+final class ContributionPages {
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  private ContributionPages() {}
+
+  static MemorialContributionSortField sortOrDefault(MemorialContributionSortField sort) {
+    return sort == null ? MemorialContributionSortField.DATE : sort;
+  }
+
+  static boolean isDescending(String order) {
+    return "DESC".equalsIgnoreCase(order);
+  }
+
+  static ContributionIndex.Key decode(String cursor, MemorialContributionSortField sort) {
+    if (cursor == null || cursor.isBlank()) {
+      return null;
+    }
+    try {
+      Map<?, ?> config = OBJECT_MAPPER.readValue(Base64.getUrlDecoder().decode(cursor), Map.class);
+      Object sortField = config.get("sortField");
+      Object sortValue = config.get("sortValue");
+      Object id = config.get("id");
+      if (!sort.getValue().equals(sortField) || sortValue == null || id == null) {
+        throw new IllegalArgumentException("Cursor does not match sort");
+      }
+      if (sort == MemorialContributionSortField.LIKES) {
+        return new ContributionIndex.Key("", ((Number) sortValue).longValue(), id.toString());
+      }
+      return new ContributionIndex.Key(sortValue.toString(), 0, id.toString());
+    } catch (Exception ex) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+    }
+  }
+
+  static Map<String, Object> response(
+      List<Map<String, Object>> items,
+      MemorialContributionSortField sort,
+      int pageSize
+  ) {
+    Map<String, Object> response = new HashMap<>();
+    if (items.size() <= pageSize) {
+      response.put("items", items);
+      response.put("nextCursor", null);
+      return response;
+    }
+    List<Map<String, Object>> page = items.subList(0, pageSize);
+    response.put("items", page);
+    response.put("nextCursor", encode(cursorKey(page.get(pageSize - 1)), sort));
+    return response;
+  }
+
+  private static ContributionIndex.Key cursorKey(Map<String, Object> item) {
+    Object totalLikes = item.get("totalLikes");
+    return new ContributionIndex.Key(
+        item.getOrDefault("createdAt", "").toString(),
+        totalLikes instanceof Number number ? number.longValue() : 0,
+        item.get("id").toString()
+    );
+  }
+
+  private static String encode(ContributionIndex.Key key, MemorialContributionSortField sort) {
+    Map<String, Object> config = new HashMap<>();
+    config.put("sortField", sort.getValue());
+    config.put("sortValue", sort == MemorialContributionSortField.LIKES ? key.likes() : key.createdAt());
+    config.put("id", key.id());
+    try {
+      byte[] json = OBJECT_MAPPER.writeValueAsString(config).getBytes(StandardCharsets.UTF_8);
+      return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+    } catch (Exception ex) {
+      throw new IllegalStateException("Unable to encode cursor", ex);
+    }
+  }
+}
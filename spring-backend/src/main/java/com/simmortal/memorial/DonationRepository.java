@@ -1,6 +1,7 @@
 package com.simmortal.memorial;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -9,32 +10,65 @@ import org.springframework.stereotype.Repository;
 @Repository
 public class DonationRepository {
   private final Map<String, Map<String, Object>> donations = new ConcurrentHashMap<>();
+  private final ContributionIndex ownedIndex = new ContributionIndex();
+  private final ContributionIndex likedIndex = new ContributionIndex();
+  private final MemorialLeaderboards leaderboards;
+
+  public DonationRepository(MemorialLeaderboards leaderboards) {
+    this.leaderboards = leaderboards;
+  }
 
   public Object getDonationById(String id) {
     return donations.get(id);
   }
 
   public Map<String, Object> save(Map<String, Object> donation) {
-    donations.put(donation.get("id").toString(), donation);
+    String id = donation.get("id").toString();
+    donations.put(id, donation);
+    ContributionIndex.Key key = ContributionIndex.keyOf(donation);
+    Object userId = donation.get("userId");
+    ownedIndex.index(id, userId == null ? null : userId.toString(), key);
+    likedIndex.index(id, ContributionIndex.likersOf(donation), key);
+    leaderboards.replace("donation:" + id, MemorialLeaderboards.donation(donation));
     return donation;
   }
 
-  public List<Map<String, Object>> listOwned(String userId) {
-    List<Map<String, Object>> results = new ArrayList<>();
-    for (Map<String, Object> donation : donations.values()) {
-      if (userId.equals(donation.get("userId"))) {
-        results.add(donation);
-      }
-    }
-    return results;
+  public List<Map<String, Object>> getAllDonations() {
+    return new ArrayList<>(donations.values());
+  }
+
+  public long countLikes(String id) {
+    return ownedIndex.likes(id);
+  }
+
+  public List<Map<String, Object>> pageOwned(
+      String userId,
+      MemorialContributionSortField sort,
+      boolean descending,
+      ContributionIndex.Key after,
+      int limit
+  ) {
+    return resolve(ownedIndex.page(userId, sort, descending, after, limit));
+  }
+
+  public List<Map<String, Object>> pageLiked(
+      String userId,
+      MemorialContributionSortField sort,
+      boolean descending,
+      ContributionIndex.Key after,
+      int limit
+  ) {
+    return resolve(likedIndex.page(userId, sort, descending, after, limit));
   }
 
-  public List<Map<String, Object>> listLiked(String userId) {
-    List<Map<String, Object>> results = new ArrayList<>();
-    for (Map<String, Object> donation : donations.values()) {
-      Object likedBy = donation.get("likedBy");
-      if (likedBy instanceof List<?> list && list.contains(userId)) {
-        results.add(donation);
+  private List<Map<String, Object>> resolve(List<String> ids) {
+    List<Map<String, Object>> results = new ArrayList<>(ids.size());
+    for (String id : ids) {
+      Map<String, Object> donation = donations.get(id);
+      if (donation != null) {
+        Map<String, Object> item = new HashMap<>(donation);
+        item.put("totalLikes", countLikes(id));
+        results.add(item);
       }
     }
     return results;
@@ -1,18 +1,23 @@
 package com.simmortal.memorial;
 
 import java.time.Instant;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 @Service
 public class DonationService {
   private final DonationRepository donationRepository;
+  private final int pageSize;
 
-  public DonationService(DonationRepository donationRepository) {
+  public DonationService(
+      DonationRepository donationRepository,
+      @Value("${app.memorial.contributions.page-size:20}") int pageSize
+  ) {
     this.donationRepository = donationRepository;
+    this.pageSize = Math.max(1, pageSize);
   }
 
   public Object getOwnedDonations(
@@ -21,8 +26,15 @@ public class DonationService {
       String order,
       String userId
   ) {
-    List<Map<String, Object>> items = applySort(donationRepository.listOwned(userId), sort, order);
-    return buildPagedResponse(items, cursor);
+    MemorialContributionSortField field = ContributionPages.sortOrDefault(sort);
+    List<Map<String, Object>> items = donationRepository.pageOwned(
+        userId,
+        field,
+        ContributionPages.isDescending(order),
+        ContributionPages.decode(cursor, field),
+        pageSize + 1
+    );
+    return ContributionPages.response(items, field, pageSize);
   }
 
   public Object getLikedDonations(
@@ -31,8 +43,15 @@ public class DonationService {
       String order,
       String userId
   ) {
-    List<Map<String, Object>> items = applySort(donationRepository.listLiked(userId), sort, order);
-    return buildPagedResponse(items, cursor);
+    MemorialContributionSortField field = ContributionPages.sortOrDefault(sort);
+    List<Map<String, Object>> items = donationRepository.pageLiked(
+        userId,
+        field,
+        ContributionPages.isDescending(order),
+        ContributionPages.decode(cursor, field),
+        pageSize + 1
+    );
+    return ContributionPages.response(items, field, pageSize);
   }
 
   public Object getDonationById(String id) {
@@ -46,31 +65,4 @@ public class DonationService {
     }
     return donation;
   }
-
-  private List<Map<String, Object>> applySort(
-      List<Map<String, Object>> items,
-      MemorialContributionSortField sort,
-      String order
-  ) {
-    Comparator<Map<String, Object>> comparator = Comparator.comparing(
-        item -> item.getOrDefault("createdAt", "").toString()
-    );
-    if (sort == MemorialContributionSortField.LIKES) {
-      comparator = Comparator.comparing(
-          item -> ((Number) item.getOrDefault("totalLikes", 0)).intValue()
-      );
-    }
-    if ("DESC".equalsIgnoreCase(order)) {
-      comparator = comparator.reversed();
-    }
-    items.sort(comparator);
-    return items;
-  }
-
-  private Map<String, Object> buildPagedResponse(List<Map<String, Object>> items, String cursor) {
-    Map<String, Object> response = new HashMap<>();
-    response.put("items", items);
-    response.put("nextCursor", null);
-    return response;
-  }
 }
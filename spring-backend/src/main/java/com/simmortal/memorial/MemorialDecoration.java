@@ -4,30 +4,34 @@ import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonValue;
 
 public enum MemorialDecoration {
-  AMETHERA_ROSE("amethera-rose"),
-  AMETHYST_RAVEL("amethyst-ravel"),
-  AURELIA_BLOOM("aurelia-bloom"),
-  AZURE_PEONIA("azure-peonia"),
-  CELESTIA_LILY("celestia-lily"),
-  CIRCLE_OF_SERENITY("circle-of-serenity"),
-  CORALIA_HIBISCUS("coralia-hibiscus"),
-  FROSTARIA_BLOOM("frostaria-bloom"),
-  GOLDEN_REVERIE("golden-reverie"),
-  IVORY_WHISPER("ivory-whisper"),
-  LUNARIA_LILY("lunaria-lily"),
-  NOCTURNE_CALLA("nocturne-calla"),
-  ROSALIA_PEONY("rosalia-peony"),
-  SERAPHINE_CALLA("seraphine-calla"),
-  SOLARIA_BLOOM("solaria-bloom"),
-  SOLARIS_HIBISCUS("solaris-hibiscus"),
-  SONATA_BLOOM("sonata-bloom"),
-  TRINITY_OF_LIGHT("trinity-of-light"),
-  VELORIA_LISIANTHUS("veloria-lisianthus");
+  AMETHERA_ROSE("amethera-rose", 0, 1),
+  AMETHYST_RAVEL("amethyst-ravel", 0, 1),
+  AURELIA_BLOOM("aurelia-bloom", 0, 1),
+  AZURE_PEONIA("azure-peonia", 0, 1),
+  CELESTIA_LILY("celestia-lily", 0, 1),
+  CIRCLE_OF_SERENITY("circle-of-serenity", 6, 0),
+  CORALIA_HIBISCUS("coralia-hibiscus", 0, 1),
+  FROSTARIA_BLOOM("frostaria-bloom", 0, 1),
+  GOLDEN_REVERIE("golden-reverie", 0, 2),
+  IVORY_WHISPER("ivory-whisper", 0, 1),
+  LUNARIA_LILY("lunaria-lily", 0, 1),
+  NOCTURNE_CALLA("nocturne-calla", 0, 1),
+  ROSALIA_PEONY("rosalia-peony", 0, 1),
+  SERAPHINE_CALLA("seraphine-calla", 0, 1),
+  SOLARIA_BLOOM("solaria-bloom", 0, 1),
+  SOLARIS_HIBISCUS("solaris-hibiscus", 0, 1),
+  SONATA_BLOOM("sonata-bloom", 0, 1),
+  TRINITY_OF_LIGHT("trinity-of-light", 3, 0),
+  VELORIA_LISIANTHUS("veloria-lisianthus", 0, 3);
 
   private final String value;
+  private final int candles;
+  private final int flowers;
 
-  MemorialDecoration(String value) {
+  MemorialDecoration(String value, int candles, int flowers) {
     this.value = value;
+    this.candles = candles;
+    this.flowers = flowers;
   }
 
   @JsonValue
@@ -35,6 +39,14 @@ public enum MemorialDecoration {
     return value;
   }
 
+  public int getCandles() {
+    return candles;
+  }
+
+  public int getFlowers() {
+    return flowers;
+  }
+
   @JsonCreator
   public static MemorialDecoration fromValue(String value) {
     for (MemorialDecoration decoration : values()) {
@@ -0,0 +1,272 @@
+package com.simmortal.memorial;
+
+import com.simmortal.storage.StorageService;
+import com.simmortal.util.ImageVariantService;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+@Component
+public class MemorialImageUploader {
+  public static final String PENDING = "pending";
+  public static final String READY = "ready";
+  public static final String FAILED = "failed";
+
+  private static final Logger logger = LoggerFactory.getLogger(MemorialImageUploader.class);
+
+  private final MemorialRepository memorialRepository;
+  private final StorageService storageService;
+  private final ImageVariantService imageVariantService;
+  private final Path spoolDirectory;
+  private final int maxAttempts;
+  private final Duration backoff;
+  private final ThreadPoolExecutor executor;
+  private final Semaphore capacity;
+  private final long retryAfterSeconds;
+
+  public MemorialImageUploader(
+      MemorialRepository memorialRepository,
+      StorageService storageService,
+      ImageVariantService imageVariantService,
+      @Value("${app.memorial.image-upload.spool-directory:${java.io.tmpdir}/simmortal-upload-spool}") String spoolDirectory,
+      @Value("${app.memorial.image-upload.threads:4}") int threads,
+      @Value("${app.memorial.image-upload.queue-capacity:100}") int queueCapacity,
+      @Value("${app.memorial.image-upload.max-attempts:3}") int maxAttempts,
+      @Value("${app.memorial.image-upload.backoff:500ms}") Duration backoff,
+      @Value("${app.memorial.image-upload.retry-after:5s}") Duration retryAfter
+  ) {
+    this.memorialRepository = memorialRepository;
+    this.storageService = storageService;
+    this.imageVariantService = imageVariantService;
+    this.spoolDirectory = Path.of(spoolDirectory);
+    this.maxAttempts = Math.max(1, maxAttempts);
+    this.backoff = backoff;
+    this.retryAfterSeconds = Math.max(1, retryAfter.toSeconds());
+    this.capacity = new Semaphore(Math.max(1, threads) + Math.max(1, queueCapacity));
+    AtomicInteger threadIndex = new AtomicInteger();
+    this.executor = new ThreadPoolExecutor(
+        Math.max(1, threads),
+        Math.max(1, threads),
+        60,
+        TimeUnit.SECONDS,
+        new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+        runnable -> {
+          Thread thread = new Thread(runnable, "memorial-image-upload-" + threadIndex.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        },
+        new ThreadPoolExecutor.AbortPolicy()
+    );
+  }
+
+  public PendingImage spool(String memorialId, MultipartFile image, String type) {
+    String extension = "png";
+    if (image != null && image.getContentType() != null && image.getContentType().contains("/")) {
+      extension = image.getContentType().split("/")[1];
+    }
+    String path = String.format("memorial/%s/%s-%d.%s", memorialId, type, System.currentTimeMillis(), extension);
+    if (!capacity.tryAcquire()) {
+      throw new UploadsBusyException(retryAfterSeconds);
+    }
+    try {
+      Files.createDirectories(spoolDirectory);
+      Path file = Files.createTempFile(spoolDirectory, "upload-", ".part");
+      try {
+        image.transferTo(file);
+      } catch (IOException | RuntimeException ex) {
+        Files.deleteIfExists(file);
+        throw ex;
+      }
+      return new PendingImage(path, file, image.getContentType());
+    } catch (Exception ex) {
+      capacity.release();
+      throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to save memorial image");
+    }
+  }
+
+  public void submit(String memorialId, PendingImage image, String... pathFields) {
+    try {
+      executor.execute(() -> upload(memorialId, image, List.of(pathFields)));
+    } catch (RejectedExecutionException ex) {
+      discard(image);
+      markState(memorialId, image.path(), List.of(pathFields), FAILED, Map.of());
+      throw new UploadsBusyException(retryAfterSeconds);
+    }
+  }
+
+  public void discard(PendingImage image) {
+    try {
+      Files.deleteIfExists(image.file());
+    } catch (IOException ex) {
+      logger.warn("Failed to delete spooled upload {}", image.file(), ex);
+    } finally {
+      capacity.release();
+    }
+  }
+
+  public static String pendingField(String pathField) {
+    return pathField.replace("Path", "PendingPath");
+  }
+
+  public static String stateField(String pathField) {
+    return pathField.replace("Path", "UploadState");
+  }
+
+  public static String variantsField(String pathField) {
+    return pathField.replace("Path", "Variants");
+  }
+
+  @PreDestroy
+  public void shutdown() throws InterruptedException {
+    executor.shutdown();
+    if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+      logger.warn("Memorial image uploads still running at shutdown: {}", executor.getActiveCount());
+    }
+  }
+
+  private void upload(String memorialId, PendingImage image, List<String> pathFields) {
+    Map<String, String> variants = Map.of();
+    boolean stored = false;
+    try {
+      stored = store(image);
+      if (stored) {
+        try (InputStream input = Files.newInputStream(image.file())) {
+          variants = imageVariantService.generate(image.path(), input);
+        }
+      }
+    } catch (IOException | RuntimeException ex) {
+      logger.warn("Failed to finish upload of {}", image.path(), ex);
+    } finally {
+      discard(image);
+    }
+    markState(memorialId, image.path(), pathFields, stored ? READY : FAILED, variants);
+  }
+
+  private boolean store(PendingImage image) throws IOException {
+    long length = Files.size(image.file());
+    long delay = backoff.toMillis();
+    for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+      try (InputStream input = Files.newInputStream(image.file())) {
+        storageService.save(image.path(), input, image.contentType(), length);
+        return true;
+      } catch (IOException | RuntimeException ex) {
+        if (attempt == maxAttempts) {
+          logger.error("Giving up on upload of {} after {} attempts", image.path(), attempt, ex);
+          return false;
+        }
+        logger.warn("Upload of {} failed on attempt {}; retrying in {} ms", image.path(), attempt, delay);
+        try {
+          Thread.sleep(delay);
+        } catch (InterruptedException interrupted) {
+          Thread.currentThread().interrupt();
+          return false;
+        }
+        delay *= 2;
+      }
+    }
+    return false;
+  }
+
+  private void markState(
+      String memorialId,
+      String path,
+      List<String> pathFields,
+      String state,
+      Map<String, String> variants
+  ) {
+    Map<Object, Object> replaced = new LinkedHashMap<>();
+    AtomicBoolean adopted = new AtomicBoolean();
+    Map<String, Object> memorial = memorialRepository.update(memorialId, draft -> {
+      for (String pathField : pathFields) {
+        if (!path.equals(draft.get(pendingField(pathField)))) {
+          continue;
+        }
+        draft.remove(pendingField(pathField));
+        draft.put(stateField(pathField), state);
+        if (READY.equals(state)) {
+          Object previous = draft.put(pathField, path);
+          Object previousVariants = draft.put(variantsField(pathField), variants);
+          if (previous != null && !previous.equals(path)) {
+            replaced.putIfAbsent(previous, previousVariants);
+          }
+        }
+        adopted.set(true);
+      }
+    });
+    List<String> orphaned = new ArrayList<>();
+    if (READY.equals(state) && !adopted.get()) {
+      orphaned.addAll(imagePaths(path, variants));
+    }
+    replaced.forEach((previous, previousVariants) -> {
+      if (!memorial.containsValue(previous)) {
+        orphaned.addAll(imagePaths(previous.toString(), previousVariants));
+      }
+    });
+    deleteImages(orphaned);
+  }
+
+  private List<String> imagePaths(String path, Object variants) {
+    Set<String> paths = new LinkedHashSet<>();
+    paths.add(path);
+    if (variants instanceof Map<?, ?> map) {
+      map.values().forEach(variant -> paths.add(variant.toString()));
+    }
+    return List.copyOf(paths);
+  }
+
+  private void deleteImages(List<String> paths) {
+    if (paths.isEmpty()) {
+      return;
+    }
+    try {
+      StorageService.DeleteResult result = storageService.deleteAll(paths);
+      if (result.hasFailures()) {
+        logger.warn("Failed to delete replaced memorial images {}", result.failed());
+      }
+    } catch (RuntimeException ex) {
+      logger.warn("Failed to delete replaced memorial images {}", paths, ex);
+    }
+  }
+
+  private static final class UploadsBusyException extends ResponseStatusException {
+    private final long retryAfterSeconds;
+
+    private UploadsBusyException(long retryAfterSeconds) {
+      super(HttpStatus.SERVICE_UNAVAILABLE, "Image uploads are busy, please retry shortly");
+      this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+      HttpHeaders headers = new HttpHeaders();
+      headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+      return headers;
+    }
+  }
+
+  public record PendingImage(String path, Path file, String contentType) {}
+}
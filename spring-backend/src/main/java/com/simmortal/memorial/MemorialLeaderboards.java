@@ -0,0 +1,295 @@
+package com.simmortal.memorial;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class MemorialLeaderboards {
+  private static final Comparator<Standing> RANKING = Comparator
+      .comparingLong(Standing::amount)
+      .reversed()
+      .thenComparing(Standing::userId);
+
+  private final int size;
+  private final Map<String, Contribution> applied = new ConcurrentHashMap<>();
+  private final Map<String, Map<Board, Leaderboard>> boards = new ConcurrentHashMap<>();
+  private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+
+  public MemorialLeaderboards(@Value("${app.memorial.leaderboard.size:10}") int size) {
+    this.size = Math.max(1, size);
+  }
+
+  public void replace(String key, Contribution next) {
+    rebuildLock.readLock().lock();
+    try {
+      applied.compute(key, (ignored, previous) -> {
+        apply(previous, next);
+        return next;
+      });
+    } finally {
+      rebuildLock.readLock().unlock();
+    }
+  }
+
+  public int rebuild(Supplier<Map<String, Contribution>> snapshot) {
+    rebuildLock.writeLock().lock();
+    try {
+      Map<String, Contribution> contributions = snapshot.get();
+      applied.clear();
+      boards.clear();
+      for (Map.Entry<String, Contribution> entry : contributions.entrySet()) {
+        if (entry.getValue() != null) {
+          applied.put(entry.getKey(), entry.getValue());
+          apply(null, entry.getValue());
+        }
+      }
+      return applied.size();
+    } finally {
+      rebuildLock.writeLock().unlock();
+    }
+  }
+
+  public List<Standing> top(String memorialId, Board board) {
+    Map<Board, Leaderboard> memorialBoards = boards.get(memorialId);
+    Leaderboard leaderboard = memorialBoards == null ? null : memorialBoards.get(board);
+    return leaderboard == null ? List.of() : leaderboard.top();
+  }
+
+  private void apply(Contribution previous, Contribution next) {
+    if (previous != null && next != null
+        && previous.memorialId().equals(next.memorialId())
+        && previous.userId().equals(next.userId())) {
+      apply(next.memorialId(), next.userId(), board -> next.amount(board) - previous.amount(board));
+      return;
+    }
+    if (previous != null) {
+      apply(previous.memorialId(), previous.userId(), board -> -previous.amount(board));
+    }
+    if (next != null) {
+      apply(next.memorialId(), next.userId(), next::amount);
+    }
+  }
+
+  private void apply(String memorialId, String userId, ToLongFunction<Board> delta) {
+    Map<Board, Leaderboard> memorialBoards = null;
+    for (Board board : Board.values()) {
+      long amount = delta.applyAsLong(board);
+      if (amount != 0) {
+        if (memorialBoards == null) {
+          memorialBoards = boards.computeIfAbsent(memorialId, ignored -> new ConcurrentHashMap<>());
+        }
+        memorialBoards
+            .computeIfAbsent(board, ignored -> new Leaderboard(size))
+            .add(userId, amount);
+      }
+    }
+  }
+
+  public static Contribution memory(Map<String, Object> memory) {
+    if (!isPublished(memory)) {
+      return null;
+    }
+    MemorialDecoration decoration = decoration(memory.get("decoration"));
+    MemorialTribute tribute = tribute(memory.get("assetDecoration"));
+    return contribution(
+        memory,
+        candles(decoration) + candles(tribute),
+        flowers(decoration) + flowers(tribute),
+        0,
+        0
+    );
+  }
+
+  public static Contribution condolence(Map<String, Object> condolence) {
+    if (!isPublished(condolence)) {
+      return null;
+    }
+    MemorialDecoration decoration = decoration(condolence.get("decoration"));
+    return contribution(condolence, candles(decoration), flowers(decoration), 0, 0);
+  }
+
+  public static Contribution donation(Map<String, Object> donation) {
+    if (!isPublished(donation)) {
+      return null;
+    }
+    return contribution(
+        donation,
+        0,
+        0,
+        longValue(donation.get("itemCount")),
+        longValue(donation.get("valueInCents"))
+    );
+  }
+
+  public static Contribution premiumTribute(Map<String, Object> memorial) {
+    if (memorial == null || !Boolean.TRUE.equals(memorial.get("isPremium"))) {
+      return null;
+    }
+    MemorialTribute tribute = tribute(memorial.get("tribute"));
+    Object memorialId = memorial.get("id");
+    Object userId = memorial.get("userId");
+    if (tribute == null || memorialId == null || userId == null) {
+      return null;
+    }
+    return new Contribution(
+        memorialId.toString(),
+        userId.toString(),
+        tribute.getCandles(),
+        tribute.getFlowers(),
+        0,
+        0
+    );
+  }
+
+  private static Contribution contribution(
+      Map<String, Object> item,
+      long candles,
+      long flowers,
+      long trees,
+      long cents
+  ) {
+    Object memorialId = item.get("memorialId");
+    Object userId = item.get("userId");
+    if (memorialId == null || userId == null) {
+      return null;
+    }
+    return new Contribution(memorialId.toString(), userId.toString(), candles, flowers, trees, cents);
+  }
+
+  private static boolean isPublished(Map<String, Object> item) {
+    return item != null && "published".equals(String.valueOf(item.get("status")));
+  }
+
+  private static MemorialDecoration decoration(Object value) {
+    if (value instanceof MemorialDecoration decoration) {
+      return decoration;
+    }
+    try {
+      return value == null ? null : MemorialDecoration.fromValue(value.toString());
+    } catch (IllegalArgumentException ex) {
+      return null;
+    }
+  }
+
+  private static MemorialTribute tribute(Object value) {
+    if (value instanceof MemorialTribute tribute) {
+      return tribute;
+    }
+    try {
+      return value == null ? null : MemorialTribute.fromValue(value.toString());
+    } catch (IllegalArgumentException ex) {
+      return null;
+    }
+  }
+
+  private static int candles(MemorialDecoration decoration) {
+    return decoration == null ? 0 : decoration.getCandles();
+  }
+
+  private static int candles(MemorialTribute tribute) {
+    return tribute == null ? 0 : tribute.getCandles();
+  }
+
+  private static int flowers(MemorialDecoration decoration) {
+    return decoration == null ? 0 : decoration.getFlowers();
+  }
+
+  private static int flowers(MemorialTribute tribute) {
+    return tribute == null ? 0 : tribute.getFlowers();
+  }
+
+  private static long longValue(Object value) {
+    if (value instanceof Number number) {
+      return number.longValue();
+    }
+    try {
+      return value == null ? 0 : Long.parseLong(value.toString());
+    } catch (NumberFormatException ex) {
+      return 0;
+    }
+  }
+
+  public enum Board {
+    CANDLES,
+    FLOWERS,
+    TREES,
+    DONATIONS
+  }
+
+  public record Contribution(
+      String memorialId,
+      String userId,
+      long candles,
+      long flowers,
+      long trees,
+      long cents
+  ) {
+    long amount(Board board) {
+      return switch (board) {
+        case CANDLES -> candles;
+        case FLOWERS -> flowers;
+        case TREES -> trees;
+        case DONATIONS -> cents;
+      };
+    }
+  }
+
+  public record Standing(String userId, long amount) {}
+
+  private static final class Leaderboard {
+    private final int size;
+    private final Map<String, Long> totals = new HashMap<>();
+    private final TreeSet<Standing> ranking = new TreeSet<>(RANKING);
+
+    Leaderboard(int size) {
+      this.size = size;
+    }
+
+    synchronized void add(String userId, long delta) {
+      Long previous = totals.get(userId);
+      long next = (previous == null ? 0 : previous) + delta;
+      if (next > 0) {
+        totals.put(userId, next);
+      } else {
+        totals.remove(userId);
+      }
+      boolean ranked = previous != null && ranking.remove(new Standing(userId, previous));
+      if (ranked && delta < 0 && totals.size() > ranking.size()) {
+        refill();
+      } else if (next > 0) {
+        offer(new Standing(userId, next));
+      }
+    }
+
+    synchronized List<Standing> top() {
+      return new ArrayList<>(ranking);
+    }
+
+    private void offer(Standing standing) {
+      if (ranking.size() < size) {
+        ranking.add(standing);
+      } else if (RANKING.compare(standing, ranking.last()) < 0) {
+        ranking.pollLast();
+        ranking.add(standing);
+      }
+    }
+
+    private void refill() {
+      ranking.clear();
+      for (Map.Entry<String, Long> total : totals.entrySet()) {
+        offer(new Standing(total.getKey(), total.getValue()));
+      }
+    }
+  }
+}
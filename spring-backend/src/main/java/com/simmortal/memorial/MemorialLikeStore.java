@@ -0,0 +1,119 @@
+package com.simmortal.memorial;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.stereotype.Component;
+
+@Component
+public class MemorialLikeStore {
+  private final Map<String, Integer> userIds = new ConcurrentHashMap<>();
+  private final AtomicInteger nextUserId = new AtomicInteger(1);
+  private final Map<String, IntSet> likes = new ConcurrentHashMap<>();
+
+  public boolean like(String memorialId, String userId) {
+    return likes.computeIfAbsent(memorialId, id -> new IntSet()).add(intern(userId));
+  }
+
+  public boolean unlike(String memorialId, String userId) {
+    Integer internal = userIds.get(userId);
+    IntSet users = likes.get(memorialId);
+    return internal != null && users != null && users.remove(internal);
+  }
+
+  public boolean isLiked(String memorialId, String userId) {
+    Integer internal = userIds.get(userId);
+    IntSet users = likes.get(memorialId);
+    return internal != null && users != null && users.contains(internal);
+  }
+
+  public int count(String memorialId) {
+    IntSet users = likes.get(memorialId);
+    return users == null ? 0 : users.size();
+  }
+
+  private int intern(String userId) {
+    return userIds.computeIfAbsent(userId, ignored -> nextUserId.getAndIncrement());
+  }
+
+  private static final class IntSet {
+    private static final int EMPTY = 0;
+    private static final int REMOVED = -1;
+    private int[] slots = new int[8];
+    private int size;
+    private int used;
+
+    synchronized boolean add(int value) {
+      int index = find(value);
+      if (index >= 0) {
+        return false;
+      }
+      if ((used + 1) * 4 > slots.length * 3) {
+        rehash(size * 2 + 1 > slots.length / 2 ? slots.length * 2 : slots.length);
+      }
+      int slot = insertionSlot(slots, value);
+      if (slots[slot] == EMPTY) {
+        used++;
+      }
+      slots[slot] = value;
+      size++;
+      return true;
+    }
+
+    synchronized boolean remove(int value) {
+      int index = find(value);
+      if (index < 0) {
+        return false;
+      }
+      slots[index] = REMOVED;
+      size--;
+      return true;
+    }
+
+    synchronized boolean contains(int value) {
+      return find(value) >= 0;
+    }
+
+    synchronized int size() {
+      return size;
+    }
+
+    private int find(int value) {
+      int mask = slots.length - 1;
+      int index = mix(value) & mask;
+      while (slots[index] != EMPTY) {
+        if (slots[index] == value) {
+          return index;
+        }
+        index = (index + 1) & mask;
+      }
+      return -1;
+    }
+
+    private void rehash(int capacity) {
+      int[] previous = slots;
+      int[] next = new int[capacity];
+      for (int value : previous) {
+        if (value != EMPTY && value != REMOVED) {
+          next[insertionSlot(next, value)] = value;
+        }
+      }
+      slots = next;
+      used = size;
+    }
+
+    private static int insertionSlot(int[] table, int value) {
+      int mask = table.length - 1;
+      int index = mix(value) & mask;
+      while (table[index] != EMPTY && table[index] != REMOVED) {
+        index = (index + 1) & mask;
+      }
+      return index;
+    }
+
+    private static int mix(int value) {
+      int hash = value * 0x9E3779B9;
+      return hash ^ (hash >>> 16);
+    }
+  }
+}
@@ -0,0 +1,169 @@
+package com.simmortal.memorial;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+class MemorialNameIndex {
+  private static final int GRAM_SIZE = 3;
+  private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+  private static final Comparator<Match> BEST_FIRST = Comparator
+      .comparingInt(Match::score)
+      .thenComparingInt(match -> match.name().length())
+      .thenComparing(Match::name)
+      .thenComparing(Match::id);
+
+  private final Map<String, Set<String>> postings = new ConcurrentHashMap<>();
+  private final Map<String, String> foldedNames = new ConcurrentHashMap<>();
+
+  void index(String id, String name) {
+    String folded = name == null ? null : fold(name);
+    String previous = folded == null ? foldedNames.remove(id) : foldedNames.put(id, folded);
+    if (previous != null && previous.equals(folded)) {
+      return;
+    }
+    Set<String> nextGrams = folded == null ? Set.of() : indexedGrams(folded);
+    if (previous != null) {
+      for (String gram : indexedGrams(previous)) {
+        if (!nextGrams.contains(gram)) {
+          postings.computeIfPresent(gram, (ignored, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+          });
+        }
+      }
+    }
+    for (String gram : nextGrams) {
+      postings.computeIfAbsent(gram, ignored -> ConcurrentHashMap.newKeySet()).add(id);
+    }
+  }
+
+  void remove(String id) {
+    index(id, null);
+  }
+
+  List<String> search(String query, int limit) {
+    String folded = fold(query);
+    if (folded.isEmpty() || limit <= 0) {
+      return List.of();
+    }
+    PriorityQueue<Match> worstFirst = new PriorityQueue<>(BEST_FIRST.reversed());
+    for (String id : candidates(folded)) {
+      String name = foldedNames.get(id);
+      if (name == null) {
+        continue;
+      }
+      int score = score(name, folded);
+      if (score < 0) {
+        continue;
+      }
+      Match match = new Match(id, name, score);
+      if (worstFirst.size() < limit) {
+        worstFirst.add(match);
+      } else if (BEST_FIRST.compare(match, worstFirst.peek()) < 0) {
+        worstFirst.poll();
+        worstFirst.add(match);
+      }
+      if (worstFirst.size() == limit && worstFirst.peek().score() == 0) {
+        break;
+      }
+    }
+    List<Match> ranked = new ArrayList<>(worstFirst);
+    ranked.sort(BEST_FIRST);
+    List<String> ids = new ArrayList<>(ranked.size());
+    for (Match match : ranked) {
+      ids.add(match.id());
+    }
+    return ids;
+  }
+
+  static String fold(String value) {
+    if (value == null) {
+      return "";
+    }
+    String dotless = value
+        .replace('\u0130', 'i')
+        .replace('\u0131', 'i')
+        .replace('I', 'i');
+    String decomposed = Normalizer.normalize(dotless, Normalizer.Form.NFD);
+    String stripped = COMBINING_MARKS.matcher(decomposed).replaceAll("");
+    return WHITESPACE.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+  }
+
+  private Iterable<String> candidates(String folded) {
+    if (folded.length() < GRAM_SIZE) {
+      Set<String> ids = postings.get(folded);
+      return ids == null ? List.of() : ids;
+    }
+    Set<String> smallest = null;
+    List<Set<String>> lists = new ArrayList<>();
+    for (String gram : grams(folded, GRAM_SIZE)) {
+      Set<String> ids = postings.get(gram);
+      if (ids == null) {
+        return List.of();
+      }
+      lists.add(ids);
+      if (smallest == null || ids.size() < smallest.size()) {
+        smallest = ids;
+      }
+    }
+    List<String> result = new ArrayList<>();
+    for (String id : smallest) {
+      boolean inAll = true;
+      for (Set<String> ids : lists) {
+        if (ids != smallest && !ids.contains(id)) {
+          inAll = false;
+          break;
+        }
+      }
+      if (inAll) {
+        result.add(id);
+      }
+    }
+    return result;
+  }
+
+  private int score(String name, String query) {
+    int position = name.indexOf(query);
+    if (position < 0) {
+      return -1;
+    }
+    if (position == 0) {
+      return name.length() == query.length() ? 0 : 1;
+    }
+    if (name.charAt(position - 1) == ' ') {
+      return 2;
+    }
+    if (name.indexOf(" " + query) > position) {
+      return 2;
+    }
+    return 3;
+  }
+
+  private Set<String> indexedGrams(String folded) {
+    Set<String> grams = new HashSet<>();
+    for (int size = 1; size <= GRAM_SIZE; size++) {
+      grams.addAll(grams(folded, size));
+    }
+    return grams;
+  }
+
+  private Set<String> grams(String folded, int size) {
+    Set<String> grams = new HashSet<>();
+    for (int i = 0; i + size <= folded.length(); i++) {
+      grams.add(folded.substring(i, i + size));
+    }
+    return grams;
+  }
+
+  private record Match(String id, String name, int score) {}
+}
@@ -1,29 +1,80 @@
 package com.simmortal.memorial;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public class MemorialRepository {
   private final Map<String, Map<String, Object>> memorials = new ConcurrentHashMap<>();
+  private final Map<String, String> slugIndex = new ConcurrentHashMap<>();
+  private final Map<String, Set<String>> ownerIndex = new ConcurrentHashMap<>();
+  private final Set<String> featuredIndex = ConcurrentHashMap.newKeySet();
+  private final Map<String, IndexedKeys> indexedKeys = new ConcurrentHashMap<>();
 
-  public Map<String, Object> save(Map<String, Object> memorial) {
-    memorials.put(memorial.get("id").toString(), memorial);
+  public synchronized Map<String, Object> save(Map<String, Object> memorial) {
+    String id = memorial.get("id").toString();
+    IndexedKeys next = IndexedKeys.of(memorial);
+    for (String slug : next.slugs()) {
+      String owner = slugIndex.get(slug);
+      if (owner != null && !owner.equals(id)) {
+        throw new SlugConflictException(slug);
+      }
+    }
+    IndexedKeys previous = indexedKeys.get(id);
+    if (previous != null) {
+      unindex(id, previous, next);
+    }
+    for (String slug : next.slugs()) {
+      slugIndex.put(slug, id);
+    }
+    addToIndex(ownerIndex, next.userId(), id);
+    if (next.featured()) {
+      featuredIndex.add(id);
+    }
+    indexedKeys.put(id, next);
+    memorials.put(id, memorial);
     return memorial;
   }
 
+  public synchronized Map<String, Object> update(String memorialId, Consumer<Map<String, Object>> changes) {
+    Map<String, Object> current = memorials.get(memorialId);
+    if (current == null) {
+      return null;
+    }
+    Map<String, Object> next = new ConcurrentHashMap<>(current);
+    changes.accept(next);
+    return save(next);
+  }
+
   public Map<String, Object> getMemorialById(String memorialId) {
     return memorials.get(memorialId);
   }
 
+  public synchronized void incrementViews(String memorialId, long delta) {
+    Map<String, Object> memorial = memorials.get(memorialId);
+    if (memorial != null) {
+      memorial.merge("views", delta, (current, added) -> ((Number) current).longValue() + ((Number) added).longValue());
+    }
+  }
+
   public Optional<Map<String, Object>> findBySlug(String slug) {
-    return memorials.values().stream()
-        .filter(memorial -> slug.equals(memorial.get("defaultSlug")) || slug.equals(memorial.get("premiumSlug")))
-        .findFirst();
+    if (slug == null) {
+      return Optional.empty();
+    }
+    String id = slugIndex.get(slug);
+    return id == null ? Optional.empty() : Optional.ofNullable(memorials.get(id));
+  }
+
+  public Optional<String> findIdBySlug(String slug) {
+    return slug == null ? Optional.empty() : Optional.ofNullable(slugIndex.get(slug));
   }
 
   public List<Map<String, Object>> getAllMemorials() {
@@ -31,16 +82,102 @@ public class MemorialRepository {
   }
 
   public List<Map<String, Object>> getMemorialsByOwner(String userId) {
-    List<Map<String, Object>> results = new ArrayList<>();
-    for (Map<String, Object> memorial : memorials.values()) {
-      if (userId.equals(memorial.get("userId"))) {
+    return resolve(ownerIndex.getOrDefault(userId, Set.of()), Integer.MAX_VALUE);
+  }
+
+  public List<Map<String, Object>> getFeaturedMemorials(Integer limit) {
+    return resolve(featuredIndex, limit == null ? Integer.MAX_VALUE : limit);
+  }
+
+  public List<Map<String, Object>> getMemorialsByIds(Collection<String> ids, Integer limit) {
+    return resolve(ids, limit == null ? Integer.MAX_VALUE : limit);
+  }
+
+  public synchronized void remove(String memorialId) {
+    memorials.remove(memorialId);
+    IndexedKeys previous = indexedKeys.remove(memorialId);
+    if (previous != null) {
+      unindex(memorialId, previous, IndexedKeys.EMPTY);
+    }
+  }
+
+  private void unindex(String id, IndexedKeys previous, IndexedKeys next) {
+    for (String slug : previous.slugs()) {
+      if (!next.slugs().contains(slug)) {
+        slugIndex.remove(slug, id);
+      }
+    }
+    if (!Objects.equals(previous.userId(), next.userId())) {
+      removeFromIndex(ownerIndex, previous.userId(), id);
+    }
+    if (previous.featured() && !next.featured()) {
+      featuredIndex.remove(id);
+    }
+  }
+
+  private void addToIndex(Map<String, Set<String>> index, String key, String id) {
+    if (key != null) {
+      index.computeIfAbsent(key, ignored -> ConcurrentHashMap.newKeySet()).add(id);
+    }
+  }
+
+  private void removeFromIndex(Map<String, Set<String>> index, String key, String id) {
+    if (key == null) {
+      return;
+    }
+    index.computeIfPresent(key, (ignored, ids) -> {
+      ids.remove(id);
+      return ids.isEmpty() ? null : ids;
+    });
+  }
+
+  private List<Map<String, Object>> resolve(Collection<String> ids, int limit) {
+    List<Map<String, Object>> results = new ArrayList<>(Math.min(ids.size(), limit));
+    for (String id : ids) {
+      if (results.size() >= limit) {
+        break;
+      }
+      Map<String, Object> memorial = memorials.get(id);
+      if (memorial != null) {
         results.add(memorial);
       }
     }
     return results;
   }
 
-  public void remove(String memorialId) {
-    memorials.remove(memorialId);
+  static final class SlugConflictException extends RuntimeException {
+    SlugConflictException(String slug) {
+      super("Slug already in use: " + slug);
+    }
+  }
+
+  private record IndexedKeys(Set<String> slugs, String userId, boolean featured) {
+    private static final IndexedKeys EMPTY = new IndexedKeys(Set.of(), null, false);
+
+    private static IndexedKeys of(Map<String, Object> memorial) {
+      return new IndexedKeys(
+          collectSlugs(memorial),
+          stringValue(memorial.get("userId")),
+          Boolean.TRUE.equals(memorial.get("featured")));
+    }
+
+    private static Set<String> collectSlugs(Map<String, Object> memorial) {
+      String defaultSlug = stringValue(memorial.get("defaultSlug"));
+      String premiumSlug = stringValue(memorial.get("premiumSlug"));
+      if (defaultSlug == null && premiumSlug == null) {
+        return Set.of();
+      }
+      if (premiumSlug == null || premiumSlug.equals(defaultSlug)) {
+        return Set.of(defaultSlug != null ? defaultSlug : premiumSlug);
+      }
+      if (defaultSlug == null) {
+        return Set.of(premiumSlug);
+      }
+      return Set.of(defaultSlug, premiumSlug);
+    }
+
+    private static String stringValue(Object value) {
+      return value == null ? null : value.toString();
+    }
   }
 }
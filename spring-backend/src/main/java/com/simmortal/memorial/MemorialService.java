@@ -1,17 +1,21 @@
 package com.simmortal.memorial;
 
-import com.simmortal.storage.StorageService;
+import com.simmortal.user.UserRepository;
 import com.simmortal.util.AssetService;
+import com.simmortal.util.ClientIp;
+import jakarta.servlet.http.HttpServletRequest;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
@@ -20,21 +24,69 @@ import org.springframework.web.server.ResponseStatusException;
 @Service
 public class MemorialService {
   private final MemorialRepository memorialRepository;
-  private final StorageService storageService;
   private final AssetService assetService;
+  private final MemorialViewCounter viewCounter;
+  private final MemorialViewDeduplicator viewDeduplicator;
+  private final MemorialLikeStore likeStore;
+  private final MemorialLeaderboards leaderboards;
+  private final MemoryRepository memoryRepository;
+  private final CondolenceRepository condolenceRepository;
+  private final DonationRepository donationRepository;
+  private final UserRepository userRepository;
+  private final MemorialImageUploader imageUploader;
+  private final int trustedProxyHops;
+  private final MemorialNameIndex nameIndex = new MemorialNameIndex();
   private final Map<String, Map<String, Object>> flags = new ConcurrentHashMap<>();
-  private final Map<String, String> slugToId = new ConcurrentHashMap<>();
-  private final Map<String, Set<String>> likes = new ConcurrentHashMap<>();
   private final Set<String> bannedSlugs = Set.of("admin", "login", "asset", "api", "memorial");
+  private final Set<String> serverManagedFields = Set.of(
+      "id",
+      "userId",
+      "status",
+      "isPremium",
+      "tribute",
+      "featured",
+      "views",
+      "likes",
+      "createdAt",
+      "publishedAt",
+      "deletedBy",
+      "deletedAt",
+      "imagePath",
+      "coverImagePath",
+      "imagePendingPath",
+      "coverImagePendingPath",
+      "imageUploadState",
+      "coverImageUploadState",
+      "imageVariants",
+      "coverImageVariants"
+  );
 
   public MemorialService(
       MemorialRepository memorialRepository,
-      StorageService storageService,
-      AssetService assetService
+      AssetService assetService,
+      MemorialViewCounter viewCounter,
+      MemorialViewDeduplicator viewDeduplicator,
+      MemorialLikeStore likeStore,
+      MemorialLeaderboards leaderboards,
+      MemoryRepository memoryRepository,
+      CondolenceRepository condolenceRepository,
+      DonationRepository donationRepository,
+      UserRepository userRepository,
+      MemorialImageUploader imageUploader,
+      @Value("${app.client-ip.trusted-proxy-hops:1}") int trustedProxyHops
   ) {
     this.memorialRepository = memorialRepository;
-    this.storageService = storageService;
     this.assetService = assetService;
+    this.viewCounter = viewCounter;
+    this.viewDeduplicator = viewDeduplicator;
+    this.likeStore = likeStore;
+    this.leaderboards = leaderboards;
+    this.memoryRepository = memoryRepository;
+    this.condolenceRepository = condolenceRepository;
+    this.donationRepository = donationRepository;
+    this.userRepository = userRepository;
+    this.imageUploader = imageUploader;
+    this.trustedProxyHops = Math.max(0, trustedProxyHops);
   }
 
   public Object createMemorial(String userId, Map<String, Object> request, MultipartFile image) {
@@ -45,23 +97,27 @@ public class MemorialService {
     if (!checkSlugAvailability(defaultSlug, id)) {
       defaultSlug = buildSlug(name, id);
     }
-    String imagePath = saveMemorialImage(id, image, "cover");
     Map<String, Object> memorial = new ConcurrentHashMap<>();
     memorial.put("id", id);
     memorial.put("userId", userId);
     memorial.put("name", name);
     memorial.put("defaultSlug", defaultSlug);
-    memorial.put("premiumSlug", null);
     memorial.put("status", "draft");
     memorial.put("createdAt", Instant.now().toString());
     memorial.put("updatedAt", Instant.now().toString());
-    memorial.put("imagePath", imagePath);
-    memorial.put("coverImagePath", imagePath);
     memorial.put("featured", false);
-    memorial.put("views", 0);
+    memorial.put("views", 0L);
     memorial.put("likes", 0);
-    memorialRepository.save(memorial);
-    slugToId.put(defaultSlug, id);
+    MemorialImageUploader.PendingImage pendingImage = imageUploader.spool(id, image, "cover");
+    try {
+      markImagePending(memorial, "imagePath", pendingImage);
+      markImagePending(memorial, "coverImagePath", pendingImage);
+      store(id, () -> memorialRepository.save(memorial));
+    } catch (RuntimeException ex) {
+      imageUploader.discard(pendingImage);
+      throw ex;
+    }
+    imageUploader.submit(id, pendingImage, "imagePath", "coverImagePath");
     return enrichMemorial(memorial);
   }
 
@@ -69,29 +125,18 @@ public class MemorialService {
     if (query == null || query.isBlank()) {
       return List.of();
     }
+    int max = limit == null ? Integer.MAX_VALUE : limit;
     List<Map<String, Object>> results = new ArrayList<>();
-    String normalized = query.toLowerCase(Locale.ROOT);
-    for (Map<String, Object> memorial : memorialRepository.getAllMemorials()) {
-      Object name = memorial.get("name");
-      if (name != null && name.toString().toLowerCase(Locale.ROOT).contains(normalized)) {
-        results.add(enrichMemorial(memorial));
-      }
-      if (limit != null && results.size() >= limit) {
-        break;
-      }
+    for (Map<String, Object> memorial : memorialRepository.getMemorialsByIds(nameIndex.search(query, max), max)) {
+      results.add(enrichMemorial(memorial));
     }
     return results;
   }
 
   public Object getFeaturedMemorials(Integer limit) {
     List<Map<String, Object>> featured = new ArrayList<>();
-    for (Map<String, Object> memorial : memorialRepository.getAllMemorials()) {
-      if (Boolean.TRUE.equals(memorial.get("featured"))) {
-        featured.add(enrichMemorial(memorial));
-      }
-      if (limit != null && featured.size() >= limit) {
-        break;
-      }
+    for (Map<String, Object> memorial : memorialRepository.getFeaturedMemorials(limit)) {
+      featured.add(enrichMemorial(memorial));
     }
     return featured;
   }
@@ -119,11 +164,7 @@ public class MemorialService {
     if (normalized.isBlank() || bannedSlugs.contains(normalized)) {
       return false;
     }
-    String existing = slugToId.get(normalized);
-    if (existing != null && !existing.equals(memorialId)) {
-      return false;
-    }
-    return memorialRepository.findBySlug(normalized).map(found -> found.get("id").toString().equals(memorialId)).orElse(true);
+    return memorialRepository.findIdBySlug(normalized).map(existing -> existing.equals(memorialId)).orElse(true);
   }
 
   public Object getPremiumSubscriptionPrices() {
@@ -154,11 +195,11 @@ public class MemorialService {
       throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Memorial not found");
     }
     ensureOwner(memorial, userId);
-    memorial.put("status", "published");
-    memorial.put("publishedAt", Instant.now().toString());
-    memorial.put("updatedAt", Instant.now().toString());
-    memorialRepository.save(memorial);
-    return enrichMemorial(memorial);
+    return enrichMemorial(updateExisting(memorialId, draft -> {
+      draft.put("status", "published");
+      draft.put("publishedAt", Instant.now().toString());
+      draft.put("updatedAt", Instant.now().toString());
+    }));
   }
 
   public Object getPublishedMemorial(String slug, String userId) {
@@ -169,7 +210,7 @@ public class MemorialService {
     }
     Map<String, Object> response = enrichMemorial(memorial);
     if (userId != null) {
-      response.put("likedByUser", likes.getOrDefault(memorialId, Set.of()).contains(userId));
+      response.put("likedByUser", likeStore.isLiked(memorialId, userId));
     }
     return response;
   }
@@ -182,53 +223,34 @@ public class MemorialService {
     return enrichMemorial(memorial);
   }
 
-  public void incrementMemorialViewBySlug(String slug, Object request) {
+  public void incrementMemorialViewBySlug(String slug, HttpServletRequest request) {
     String memorialId = getMemorialIdBySlug(slug);
     if (memorialId == null) {
       return;
     }
-    Map<String, Object> memorial = memorialRepository.getMemorialById(memorialId);
-    if (memorial == null) {
+    String ipHash = ClientIp.hash(ClientIp.resolve(request, trustedProxyHops));
+    if (!viewDeduplicator.shouldCount(memorialId, ipHash)) {
       return;
     }
-    int views = ((Number) memorial.getOrDefault("views", 0)).intValue();
-    memorial.put("views", views + 1);
-    memorial.put("updatedAt", Instant.now().toString());
-    memorialRepository.save(memorial);
+    viewCounter.increment(memorialId);
   }
 
   public String getMemorialIdBySlug(String slug) {
-    String id = slugToId.get(slug);
-    if (id != null) {
-      return id;
-    }
-    return memorialRepository.findBySlug(slug).map(memorial -> memorial.get("id").toString()).orElse(null);
+    return memorialRepository.findIdBySlug(slug).orElse(null);
   }
 
   public void likeMemorial(String memorialId, String userId) {
-    Map<String, Object> memorial = memorialRepository.getMemorialById(memorialId);
-    if (memorial == null) {
+    if (memorialRepository.getMemorialById(memorialId) == null) {
       throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Memorial not found");
     }
-    Set<String> likedUsers = likes.computeIfAbsent(memorialId, id -> new HashSet<>());
-    if (likedUsers.add(userId)) {
-      int totalLikes = ((Number) memorial.getOrDefault("likes", 0)).intValue() + 1;
-      memorial.put("likes", totalLikes);
-      memorialRepository.save(memorial);
-    }
+    likeStore.like(memorialId, userId);
   }
 
   public void unlikeMemorial(String memorialId, String userId) {
-    Map<String, Object> memorial = memorialRepository.getMemorialById(memorialId);
-    if (memorial == null) {
+    if (memorialRepository.getMemorialById(memorialId) == null) {
       throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Memorial not found");
     }
-    Set<String> likedUsers = likes.getOrDefault(memorialId, new HashSet<>());
-    if (likedUsers.remove(userId)) {
-      int totalLikes = ((Number) memorial.getOrDefault("likes", 0)).intValue();
-      memorial.put("likes", Math.max(0, totalLikes - 1));
-      memorialRepository.save(memorial);
-    }
+    likeStore.unlike(memorialId, userId);
   }
 
   public Object getMemorial(String userId, String memorialId, Boolean recommendSlug) {
@@ -264,38 +286,71 @@ public class MemorialService {
       throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Memorial not found");
     }
     ensureOwner(memorial, userId);
-    if (request != null) {
-      memorial.putAll(request);
-    }
+    String nextDefaultSlug = null;
+    String nextPremiumSlug = null;
     if (request != null && request.get("defaultSlug") != null) {
-      String nextSlug = sanitizeSlug(request.get("defaultSlug").toString());
-      if (!checkSlugAvailability(nextSlug, memorialId)) {
+      nextDefaultSlug = sanitizeSlug(request.get("defaultSlug").toString());
+      if (!checkSlugAvailability(nextDefaultSlug, memorialId)) {
         throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Slug already in use");
       }
-      String previousSlug = memorial.getOrDefault("defaultSlug", "").toString();
-      memorial.put("defaultSlug", nextSlug);
-      slugToId.remove(previousSlug);
-      slugToId.put(nextSlug, memorialId);
     }
     if (request != null && request.get("premiumSlug") != null) {
-      String nextSlug = sanitizeSlug(request.get("premiumSlug").toString());
-      if (!checkSlugAvailability(nextSlug, memorialId)) {
+      nextPremiumSlug = sanitizeSlug(request.get("premiumSlug").toString());
+      if (!checkSlugAvailability(nextPremiumSlug, memorialId)) {
         throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Slug already in use");
       }
-      memorial.put("premiumSlug", nextSlug);
-      slugToId.put(nextSlug, memorialId);
     }
-    if (image != null) {
-      String imagePath = saveMemorialImage(memorialId, image, "portrait");
-      memorial.put("imagePath", imagePath);
+    String defaultSlug = nextDefaultSlug;
+    String premiumSlug = nextPremiumSlug;
+    MemorialImageUploader.PendingImage pendingImage = null;
+    MemorialImageUploader.PendingImage pendingCoverImage = null;
+    Map<String, Object> updated;
+    try {
+      if (image != null) {
+        pendingImage = imageUploader.spool(memorialId, image, "portrait");
+      }
+      if (coverImage != null) {
+        pendingCoverImage = imageUploader.spool(memorialId, coverImage, "cover");
+      }
+      MemorialImageUploader.PendingImage portrait = pendingImage;
+      MemorialImageUploader.PendingImage cover = pendingCoverImage;
+      updated = updateExisting(memorialId, draft -> {
+        if (request != null) {
+          request.forEach((field, value) -> {
+            if (!serverManagedFields.contains(field) && value != null) {
+              draft.put(field, value);
+            }
+          });
+        }
+        if (defaultSlug != null) {
+          draft.put("defaultSlug", defaultSlug);
+        }
+        if (premiumSlug != null) {
+          draft.put("premiumSlug", premiumSlug);
+        }
+        if (portrait != null) {
+          markImagePending(draft, "imagePath", portrait);
+        }
+        if (cover != null) {
+          markImagePending(draft, "coverImagePath", cover);
+        }
+        draft.put("updatedAt", Instant.now().toString());
+      });
+    } catch (RuntimeException ex) {
+      discard(pendingImage);
+      discard(pendingCoverImage);
+      throw ex;
     }
-    if (coverImage != null) {
-      String coverImagePath = saveMemorialImage(memorialId, coverImage, "cover");
-      memorial.put("coverImagePath", coverImagePath);
+    try {
+      if (pendingImage != null) {
+        imageUploader.submit(memorialId, pendingImage, "imagePath");
+      }
+    } finally {
+      if (pendingCoverImage != null) {
+        imageUploader.submit(memorialId, pendingCoverImage, "coverImagePath");
+      }
     }
-    memorial.put("updatedAt", Instant.now().toString());
-    memorialRepository.save(memorial);
-    return enrichMemorial(memorial);
+    return enrichMemorial(updated);
   }
 
   public Object deleteMemorial(String userId, String memorialId) {
@@ -304,11 +359,11 @@ public class MemorialService {
       throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Memorial not found");
     }
     ensureOwner(memorial, userId);
-    memorial.put("status", "removed");
-    memorial.put("deletedBy", userId);
-    memorial.put("deletedAt", Instant.now().toString());
-    memorialRepository.save(memorial);
-    return memorial;
+    return updateExisting(memorialId, draft -> {
+      draft.put("status", "removed");
+      draft.put("deletedBy", userId);
+      draft.put("deletedAt", Instant.now().toString());
+    });
   }
 
   public void createMemorialFlag(
@@ -360,19 +415,39 @@ public class MemorialService {
   }
 
   public Object getTopCandleContributors(String slug) {
-    return List.of();
+    return buildTopContributors(slug, MemorialLeaderboards.Board.CANDLES, 1);
   }
 
   public Object getTopDonors(String slug) {
-    return List.of();
+    return buildTopContributors(slug, MemorialLeaderboards.Board.DONATIONS, 100);
   }
 
   public Object getTopFlowerContributors(String slug) {
-    return List.of();
+    return buildTopContributors(slug, MemorialLeaderboards.Board.FLOWERS, 1);
   }
 
   public Object getTopTreePlanters(String slug) {
-    return List.of();
+    return buildTopContributors(slug, MemorialLeaderboards.Board.TREES, 1);
+  }
+
+  public Object rebuildLeaderboards() {
+    int contributions = leaderboards.rebuild(() -> {
+      Map<String, MemorialLeaderboards.Contribution> snapshot = new HashMap<>();
+      for (Map<String, Object> memory : memoryRepository.getAllMemories()) {
+        snapshot.put("memory:" + memory.get("id"), MemorialLeaderboards.memory(memory));
+      }
+      for (Map<String, Object> condolence : condolenceRepository.getAllCondolences()) {
+        snapshot.put("condolence:" + condolence.get("id"), MemorialLeaderboards.condolence(condolence));
+      }
+      for (Map<String, Object> donation : donationRepository.getAllDonations()) {
+        snapshot.put("donation:" + donation.get("id"), MemorialLeaderboards.donation(donation));
+      }
+      for (Map<String, Object> memorial : memorialRepository.getAllMemorials()) {
+        snapshot.put("tribute:" + memorial.get("id"), MemorialLeaderboards.premiumTribute(memorial));
+      }
+      return snapshot;
+    });
+    return Map.of("contributions", contributions);
   }
 
   public Object getAdminMemorials() {
@@ -392,25 +467,17 @@ public class MemorialService {
   }
 
   public Object addFeaturedMemorial(String adminUserId, String id) {
-    Map<String, Object> memorial = memorialRepository.getMemorialById(id);
-    if (memorial == null) {
-      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Memorial not found");
-    }
-    memorial.put("featured", true);
-    memorial.put("featuredAt", Instant.now().toString());
-    memorialRepository.save(memorial);
-    return enrichMemorial(memorial);
+    return enrichMemorial(updateExisting(id, draft -> {
+      draft.put("featured", true);
+      draft.put("featuredAt", Instant.now().toString());
+    }));
   }
 
   public Object removeFeaturedMemorial(String adminUserId, String id) {
-    Map<String, Object> memorial = memorialRepository.getMemorialById(id);
-    if (memorial == null) {
-      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Memorial not found");
-    }
-    memorial.put("featured", false);
-    memorial.put("featuredAt", null);
-    memorialRepository.save(memorial);
-    return enrichMemorial(memorial);
+    return enrichMemorial(updateExisting(id, draft -> {
+      draft.put("featured", false);
+      draft.remove("featuredAt");
+    }));
   }
 
   public Object getOpenAdminFlags() {
@@ -443,18 +510,49 @@ public class MemorialService {
     return sanitized;
   }
 
-  private String saveMemorialImage(String memorialId, MultipartFile image, String type) {
-    String extension = "png";
-    if (image != null && image.getContentType() != null && image.getContentType().contains("/")) {
-      extension = image.getContentType().split("/")[1];
+  private void markImagePending(
+      Map<String, Object> memorial,
+      String pathField,
+      MemorialImageUploader.PendingImage pendingImage
+  ) {
+    memorial.put(MemorialImageUploader.pendingField(pathField), pendingImage.path());
+    memorial.put(MemorialImageUploader.stateField(pathField), MemorialImageUploader.PENDING);
+  }
+
+  private Map<String, Object> updateExisting(String memorialId, Consumer<Map<String, Object>> changes) {
+    Map<String, Object> updated = store(memorialId, () -> memorialRepository.update(memorialId, changes));
+    if (updated == null) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Memorial not found");
     }
-    String path = String.format("memorial/%s/%s-%d.%s", memorialId, type, System.currentTimeMillis(), extension);
+    return updated;
+  }
+
+  private Map<String, Object> store(String memorialId, Supplier<Map<String, Object>> write) {
+    Map<String, Object> stored;
     try {
-      storageService.save(path, image.getBytes(), image.getContentType());
-    } catch (Exception ex) {
-      throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to save memorial image");
+      stored = write.get();
+    } catch (MemorialRepository.SlugConflictException ex) {
+      throw new ResponseStatusException(HttpStatus.CONFLICT, "Slug already in use", ex);
+    }
+    if (stored != null) {
+      reindex(memorialId);
+    }
+    return stored;
+  }
+
+  private synchronized void reindex(String memorialId) {
+    Map<String, Object> memorial = memorialRepository.getMemorialById(memorialId);
+    Object name = memorial == null ? null : memorial.get("name");
+    nameIndex.index(memorialId, name == null ? null : name.toString());
+    leaderboards.replace(
+        "tribute:" + memorialId,
+        memorial == null ? null : MemorialLeaderboards.premiumTribute(memorial));
+  }
+
+  private void discard(MemorialImageUploader.PendingImage pendingImage) {
+    if (pendingImage != null) {
+      imageUploader.discard(pendingImage);
     }
-    return path;
   }
 
   private void ensureOwner(Map<String, Object> memorial, String userId) {
@@ -463,16 +561,58 @@ public class MemorialService {
     }
   }
 
+  private List<Map<String, Object>> buildTopContributors(
+      String slug,
+      MemorialLeaderboards.Board board,
+      long divisor
+  ) {
+    String memorialId = getMemorialIdBySlug(slug);
+    if (memorialId == null) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Memorial not found");
+    }
+    List<Map<String, Object>> results = new ArrayList<>();
+    for (MemorialLeaderboards.Standing standing : leaderboards.top(memorialId, board)) {
+      Map<String, Object> contributor = new HashMap<>();
+      contributor.put("userId", standing.userId());
+      contributor.put("name", resolveDisplayName(standing.userId()));
+      contributor.put("amount", divisor == 1 ? standing.amount() : Math.round((double) standing.amount() / divisor));
+      results.add(contributor);
+    }
+    return results;
+  }
+
+  private Object resolveDisplayName(String userId) {
+    Object user = userRepository.getUserById(userId);
+    return user instanceof Map<?, ?> map ? map.get("displayName") : null;
+  }
+
   private Map<String, Object> enrichMemorial(Map<String, Object> memorial) {
     Map<String, Object> enriched = new HashMap<>(memorial);
+    enriched.put("views", viewCounter.currentViews(memorial));
+    Object id = memorial.get("id");
+    if (id != null) {
+      enriched.put("likes", likeStore.count(id.toString()));
+    }
+    enriched.remove(MemorialImageUploader.pendingField("imagePath"));
+    enriched.remove(MemorialImageUploader.pendingField("coverImagePath"));
     Object imagePath = memorial.get("imagePath");
     Object coverImagePath = memorial.get("coverImagePath");
     if (imagePath != null) {
       enriched.put("imagePath", assetService.generateAssetUrl(imagePath.toString()));
+      putVariantUrls(enriched, "imageVariants", memorial.get("imageVariants"));
     }
     if (coverImagePath != null) {
       enriched.put("coverImagePath", assetService.generateAssetUrl(coverImagePath.toString()));
+      putVariantUrls(enriched, "coverImageVariants", memorial.get("coverImageVariants"));
     }
     return enriched;
   }
+
+  private void putVariantUrls(Map<String, Object> enriched, String key, Object variants) {
+    if (variants instanceof Map<?, ?> map && !map.isEmpty()) {
+      enriched.put(key, assetService.generateVariantUrls(map));
+    } else {
+      enriched.remove(key);
+    }
+  }
 }
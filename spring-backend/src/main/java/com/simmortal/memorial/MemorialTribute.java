@@ -4,24 +4,28 @@ import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonValue;
 
 public enum MemorialTribute {
-  DEFAULT("default"),
-  AMETHYST_TRANQUILITY("amethyst-tranquility"),
-  BLOSSOM_OF_GRACE("blossom-of-grace"),
-  CRIMSON_DEVOTION("crimson-devotion"),
-  FLAMES_OF_REMEMBRANCE("flames-of-remembrance"),
-  FROSTLIGHT_HARMONY("frostlight-harmony"),
-  GOLDEN_SERENITY("golden-serenity"),
-  LUNAR_SERENITY("lunar-serenity"),
-  MIDNIGHT_SERENITY("midnight-serenity"),
-  OCEAN_OF_LIGHT("ocean-of-light"),
-  ROYAL_SUNRISE("royal-sunrise"),
-  CELESTIAL_BLOOM("celestial-bloom"),
-  MIDNIGHT_ELEGY("midnight-elegy");
+  DEFAULT("default", 0, 0),
+  AMETHYST_TRANQUILITY("amethyst-tranquility", 7, 4),
+  BLOSSOM_OF_GRACE("blossom-of-grace", 8, 5),
+  CRIMSON_DEVOTION("crimson-devotion", 7, 6),
+  FLAMES_OF_REMEMBRANCE("flames-of-remembrance", 8, 0),
+  FROSTLIGHT_HARMONY("frostlight-harmony", 11, 4),
+  GOLDEN_SERENITY("golden-serenity", 10, 8),
+  LUNAR_SERENITY("lunar-serenity", 7, 4),
+  MIDNIGHT_SERENITY("midnight-serenity", 7, 10),
+  OCEAN_OF_LIGHT("ocean-of-light", 13, 0),
+  ROYAL_SUNRISE("royal-sunrise", 0, 11),
+  CELESTIAL_BLOOM("celestial-bloom", 9, 6),
+  MIDNIGHT_ELEGY("midnight-elegy", 0, 17);
 
   private final String value;
+  private final int candles;
+  private final int flowers;
 
-  MemorialTribute(String value) {
+  MemorialTribute(String value, int candles, int flowers) {
     this.value = value;
+    this.candles = candles;
+    this.flowers = flowers;
   }
 
   @JsonValue
@@ -29,6 +33,14 @@ public enum MemorialTribute {
     return value;
   }
 
+  public int getCandles() {
+    return candles;
+  }
+
+  public int getFlowers() {
+    return flowers;
+  }
+
   @JsonCreator
   public static MemorialTribute fromValue(String value) {
     for (MemorialTribute tribute : values()) {
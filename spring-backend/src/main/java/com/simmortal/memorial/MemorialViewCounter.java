@@ -0,0 +1,102 @@
+package com.simmortal.memorial;
+
+import jakarta.annotation.PreDestroy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class MemorialViewCounter {
+  private static final Logger logger = LoggerFactory.getLogger(MemorialViewCounter.class);
+  private final MemorialRepository memorialRepository;
+  private final Map<String, PendingViews> pending = new ConcurrentHashMap<>();
+  private final StampedLock flushLock = new StampedLock();
+
+  public MemorialViewCounter(MemorialRepository memorialRepository) {
+    this.memorialRepository = memorialRepository;
+  }
+
+  public void increment(String memorialId) {
+    long delta = 1;
+    while (delta != 0) {
+      PendingViews views = pending.computeIfAbsent(memorialId, id -> new PendingViews());
+      views.count.add(delta);
+      delta = views.retired ? views.count.sumThenReset() : 0;
+    }
+  }
+
+  public long currentViews(Map<String, Object> memorial) {
+    Object id = memorial.get("id");
+    if (id == null) {
+      return durableViews(memorial);
+    }
+    long stamp = flushLock.tryOptimisticRead();
+    long views = readViews(id.toString(), memorial);
+    if (!flushLock.validate(stamp)) {
+      stamp = flushLock.readLock();
+      try {
+        views = readViews(id.toString(), memorial);
+      } finally {
+        flushLock.unlockRead(stamp);
+      }
+    }
+    return views;
+  }
+
+  @Scheduled(fixedDelayString = "${app.memorial.views.flush-interval-ms:5000}")
+  public void flush() {
+    int flushed = 0;
+    for (Map.Entry<String, PendingViews> entry : pending.entrySet()) {
+      PendingViews views = entry.getValue();
+      boolean idle = views.count.sum() == 0;
+      if (idle) {
+        views.retired = true;
+        pending.remove(entry.getKey(), views);
+      }
+      long stamp = flushLock.writeLock();
+      try {
+        long delta = idle ? views.count.sumThenReset() : views.count.sum();
+        if (delta == 0) {
+          continue;
+        }
+        memorialRepository.incrementViews(entry.getKey(), delta);
+        if (!idle) {
+          views.count.add(-delta);
+        }
+        flushed++;
+      } finally {
+        flushLock.unlockWrite(stamp);
+      }
+    }
+    if (flushed > 0) {
+      logger.debug("Flushed view counts for {} memorials", flushed);
+    }
+  }
+
+  @PreDestroy
+  public void flushOnShutdown() {
+    flush();
+  }
+
+  private long readViews(String memorialId, Map<String, Object> memorial) {
+    Map<String, Object> current = memorialRepository.getMemorialById(memorialId);
+    long durable = durableViews(current == null ? memorial : current);
+    PendingViews views = pending.get(memorialId);
+    return views == null ? durable : durable + views.count.sum();
+  }
+
+  private static long durableViews(Map<String, Object> memorial) {
+    Object views = memorial.get("views");
+    return views instanceof Number number ? number.longValue() : 0L;
+  }
+
+  private static final class PendingViews {
+    private final LongAdder count = new LongAdder();
+    private volatile boolean retired;
+  }
+}
@@ -0,0 +1,137 @@
+package com.simmortal.memorial;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class MemorialViewDeduplicator {
+  private final long bucketMillis;
+  private final int bitCount;
+  private final int hashCount;
+  private final AtomicReferenceArray<Bucket> ring;
+  private final Counter accepted;
+  private final Counter suppressed;
+
+  public MemorialViewDeduplicator(
+      @Value("${app.memorial.views.dedup.window:24h}") Duration window,
+      @Value("${app.memorial.views.dedup.buckets:4}") int bucketCount,
+      @Value("${app.memorial.views.dedup.expected-views:1000000}") long expectedViews,
+      @Value("${app.memorial.views.dedup.false-positive-rate:0.01}") double falsePositiveRate,
+      MeterRegistry meterRegistry
+  ) {
+    if (bucketCount < 1) {
+      throw new IllegalArgumentException("Dedup bucket count must be positive");
+    }
+    this.bucketMillis = Math.max(1, window.toMillis() / bucketCount);
+    long perBucket = Math.max(1, expectedViews / bucketCount);
+    double bits = -perBucket * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+    this.bitCount = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, Math.ceil(bits / 64) * 64));
+    this.hashCount = (int) Math.max(1, Math.round((double) bitCount / perBucket * Math.log(2)));
+    this.ring = new AtomicReferenceArray<>(bucketCount + 1);
+    for (int i = 0; i < ring.length(); i++) {
+      ring.set(i, new Bucket(-1, new AtomicLongArray(0)));
+    }
+    this.accepted = Counter.builder("memorial.views.dedup")
+        .tag("result", "accepted")
+        .register(meterRegistry);
+    this.suppressed = Counter.builder("memorial.views.dedup")
+        .tag("result", "suppressed")
+        .register(meterRegistry);
+    Gauge.builder("memorial.views.dedup.memory", this, MemorialViewDeduplicator::footprintBytes)
+        .baseUnit("bytes")
+        .register(meterRegistry);
+  }
+
+  public boolean shouldCount(String memorialId, String ipHash) {
+    long epoch = System.currentTimeMillis() / bucketMillis;
+    long h1 = fnv1a(memorialId, ipHash, 0xcbf29ce484222325L);
+    long h2 = fnv1a(memorialId, ipHash, 0x84222325cbf29ce4L) | 1L;
+    for (long e = epoch - ring.length() + 1; e < epoch; e++) {
+      Bucket bucket = ring.get(slot(e));
+      if (bucket.epoch() == e && mightContain(bucket.bits(), h1, h2)) {
+        suppressed.increment();
+        return false;
+      }
+    }
+    AtomicLongArray current = currentBits(epoch);
+    if (!put(current, h1, h2)) {
+      suppressed.increment();
+      return false;
+    }
+    accepted.increment();
+    return true;
+  }
+
+  public long footprintBytes() {
+    long bytes = 0;
+    for (int i = 0; i < ring.length(); i++) {
+      bytes += ring.get(i).bits().length() * 8L;
+    }
+    return bytes;
+  }
+
+  private AtomicLongArray currentBits(long epoch) {
+    int slot = slot(epoch);
+    Bucket bucket = ring.get(slot);
+    if (bucket.epoch() == epoch) {
+      return bucket.bits();
+    }
+    synchronized (ring) {
+      bucket = ring.get(slot);
+      if (bucket.epoch() != epoch) {
+        bucket = new Bucket(epoch, new AtomicLongArray(bitCount / 64));
+        ring.set(slot, bucket);
+      }
+      return bucket.bits();
+    }
+  }
+
+  private boolean mightContain(AtomicLongArray bits, long h1, long h2) {
+    for (int i = 0; i < hashCount; i++) {
+      long bit = Math.floorMod(h1 + i * h2, (long) bitCount);
+      if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean put(AtomicLongArray bits, long h1, long h2) {
+    boolean changed = false;
+    for (int i = 0; i < hashCount; i++) {
+      long bit = Math.floorMod(h1 + i * h2, (long) bitCount);
+      long mask = 1L << bit;
+      long previous = bits.getAndAccumulate((int) (bit >>> 6), mask, (value, m) -> value | m);
+      changed |= (previous & mask) == 0;
+    }
+    return changed;
+  }
+
+  private int slot(long epoch) {
+    return (int) Math.floorMod(epoch, (long) ring.length());
+  }
+
+  private static long fnv1a(String memorialId, String ipHash, long seed) {
+    long hash = seed;
+    for (byte b : memorialId.getBytes(StandardCharsets.UTF_8)) {
+      hash = (hash ^ (b & 0xff)) * 0x100000001b3L;
+    }
+    hash = (hash ^ ':') * 0x100000001b3L;
+    for (byte b : ipHash.getBytes(StandardCharsets.UTF_8)) {
+      hash = (hash ^ (b & 0xff)) * 0x100000001b3L;
+    }
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+
+  private record Bucket(long epoch, AtomicLongArray bits) {}
+}
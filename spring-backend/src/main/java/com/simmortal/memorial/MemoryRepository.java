@@ -1,6 +1,7 @@
 package com.simmortal.memorial;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -9,32 +10,65 @@ import org.springframework.stereotype.Repository;
 @Repository
 public class MemoryRepository {
   private final Map<String, Map<String, Object>> memories = new ConcurrentHashMap<>();
+  private final ContributionIndex ownedIndex = new ContributionIndex();
+  private final ContributionIndex likedIndex = new ContributionIndex();
+  private final MemorialLeaderboards leaderboards;
+
+  public MemoryRepository(MemorialLeaderboards leaderboards) {
+    this.leaderboards = leaderboards;
+  }
 
   public Object getMemoryById(String id) {
     return memories.get(id);
   }
 
   public Map<String, Object> save(Map<String, Object> memory) {
-    memories.put(memory.get("id").toString(), memory);
+    String id = memory.get("id").toString();
+    memories.put(id, memory);
+    ContributionIndex.Key key = ContributionIndex.keyOf(memory);
+    Object userId = memory.get("userId");
+    ownedIndex.index(id, userId == null ? null : userId.toString(), key);
+    likedIndex.index(id, ContributionIndex.likersOf(memory), key);
+    leaderboards.replace("memory:" + id, MemorialLeaderboards.memory(memory));
     return memory;
   }
 
-  public List<Map<String, Object>> listOwned(String userId) {
-    List<Map<String, Object>> results = new ArrayList<>();
-    for (Map<String, Object> memory : memories.values()) {
-      if (userId.equals(memory.get("userId"))) {
-        results.add(memory);
-      }
-    }
-    return results;
+  public List<Map<String, Object>> getAllMemories() {
+    return new ArrayList<>(memories.values());
+  }
+
+  public long countLikes(String id) {
+    return ownedIndex.likes(id);
+  }
+
+  public List<Map<String, Object>> pageOwned(
+      String userId,
+      MemorialContributionSortField sort,
+      boolean descending,
+      ContributionIndex.Key after,
+      int limit
+  ) {
+    return resolve(ownedIndex.page(userId, sort, descending, after, limit));
+  }
+
+  public List<Map<String, Object>> pageLiked(
+      String userId,
+      MemorialContributionSortField sort,
+      boolean descending,
+      ContributionIndex.Key after,
+      int limit
+  ) {
+    return resolve(likedIndex.page(userId, sort, descending, after, limit));
   }
 
-  public List<Map<String, Object>> listLiked(String userId) {
-    List<Map<String, Object>> results = new ArrayList<>();
-    for (Map<String, Object> memory : memories.values()) {
-      Object likedBy = memory.get("likedBy");
-      if (likedBy instanceof List<?> list && list.contains(userId)) {
-        results.add(memory);
+  private List<Map<String, Object>> resolve(List<String> ids) {
+    List<Map<String, Object>> results = new ArrayList<>(ids.size());
+    for (String id : ids) {
+      Map<String, Object> memory = memories.get(id);
+      if (memory != null) {
+        Map<String, Object> item = new HashMap<>(memory);
+        item.put("totalLikes", countLikes(id));
+        results.add(item);
       }
     }
     return results;
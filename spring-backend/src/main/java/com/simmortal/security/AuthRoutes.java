@@ -0,0 +1,143 @@
+package com.simmortal.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+@Component
+public class AuthRoutes {
+  public static final String JWT_FILTER = "jwt";
+  public static final String SUPERTOKENS_FILTER = "supertokens";
+  private static final List<String> FILTERS = List.of(JWT_FILTER, SUPERTOKENS_FILTER);
+  private static final String ROOT_ROUTE = "/";
+  private static final String OTHER_ROUTE = "other";
+
+  private final AntPathMatcher matcher = new AntPathMatcher();
+  private final List<String> publicPaths;
+  private final int maxRouteTags;
+  private final MeterRegistry meterRegistry;
+  private volatile Map<String, Map<String, RouteMeters>> meters = Map.of();
+
+  public AuthRoutes(
+      @Value("${app.security.public-paths:/asset/**,/auth/**,/api-docs/**,/swagger/**}") List<String> publicPaths,
+      @Value("${app.security.metrics.max-routes:50}") int maxRouteTags,
+      MeterRegistry meterRegistry
+  ) {
+    this.publicPaths = publicPaths.stream().map(String::trim).filter(path -> !path.isEmpty()).toList();
+    this.maxRouteTags = maxRouteTags;
+    this.meterRegistry = meterRegistry;
+  }
+
+  public String[] publicPaths() {
+    return publicPaths.toArray(String[]::new);
+  }
+
+  public boolean isPublic(HttpServletRequest request) {
+    String path = pathOf(request);
+    for (String pattern : publicPaths) {
+      if (matcher.match(pattern, path)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public void recordBypass(String filter, HttpServletRequest request) {
+    RouteMeters route = metersOf(filter, request);
+    if (route != null) {
+      route.bypassed().increment();
+    }
+  }
+
+  public void recordAuthentication(String filter, HttpServletRequest request, long startedNanos, boolean authenticated) {
+    RouteMeters route = metersOf(filter, request);
+    if (route != null) {
+      (authenticated ? route.authenticated() : route.anonymous())
+          .record(System.nanoTime() - startedNanos, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  @EventListener
+  public void onContextRefreshed(ContextRefreshedEvent event) {
+    Set<String> routes = new TreeSet<>();
+    for (RequestMappingHandlerMapping mapping
+        : event.getApplicationContext().getBeansOfType(RequestMappingHandlerMapping.class).values()) {
+      for (RequestMappingInfo info : mapping.getHandlerMethods().keySet()) {
+        for (String pattern : info.getPatternValues()) {
+          String route = routeOf(pattern.startsWith("/") ? pattern : "/" + pattern);
+          if (!route.equals(ROOT_ROUTE) && !route.contains("{") && !route.contains("*")) {
+            routes.add(route);
+          }
+        }
+      }
+    }
+    Map<String, Map<String, RouteMeters>> registered = new HashMap<>();
+    for (String filter : FILTERS) {
+      Map<String, RouteMeters> byRoute = new HashMap<>();
+      byRoute.put(ROOT_ROUTE, register(filter, ROOT_ROUTE));
+      byRoute.put(OTHER_ROUTE, register(filter, OTHER_ROUTE));
+      routes.stream().limit(maxRouteTags).forEach(route -> byRoute.put(route, register(filter, route)));
+      registered.put(filter, Map.copyOf(byRoute));
+    }
+    meters = Map.copyOf(registered);
+  }
+
+  private RouteMeters register(String filter, String route) {
+    return new RouteMeters(
+        Counter.builder("security.auth.bypassed")
+            .tag("filter", filter)
+            .tag("route", route)
+            .register(meterRegistry),
+        timer(filter, route, "authenticated"),
+        timer(filter, route, "anonymous")
+    );
+  }
+
+  private Timer timer(String filter, String route, String outcome) {
+    return Timer.builder("security.auth")
+        .tag("filter", filter)
+        .tag("route", route)
+        .tag("outcome", outcome)
+        .register(meterRegistry);
+  }
+
+  private RouteMeters metersOf(String filter, HttpServletRequest request) {
+    Map<String, RouteMeters> byRoute = meters.get(filter);
+    if (byRoute == null) {
+      return null;
+    }
+    RouteMeters route = byRoute.get(routeOf(pathOf(request)));
+    return route != null ? route : byRoute.get(OTHER_ROUTE);
+  }
+
+  private String routeOf(String path) {
+    int end = path.indexOf('/', 1);
+    String route = end < 0 ? path : path.substring(0, end);
+    return route.length() <= 1 ? ROOT_ROUTE : route;
+  }
+
+  private String pathOf(HttpServletRequest request) {
+    String uri = request.getRequestURI();
+    String contextPath = request.getContextPath();
+    if (contextPath != null && !contextPath.isEmpty() && uri.startsWith(contextPath)) {
+      uri = uri.substring(contextPath.length());
+    }
+    return uri.isEmpty() ? "/" : uri;
+  }
+
+  private record RouteMeters(Counter bypassed, Timer authenticated, Timer anonymous) {}
+}
@@ -21,9 +21,20 @@ import org.springframework.web.filter.OncePerRequestFilter;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
   private static final String USER_ID_HEADER = "X-User-Id";
   private final JwtService jwtService;
+  private final AuthRoutes authRoutes;
 
-  public JwtAuthenticationFilter(JwtService jwtService) {
+  public JwtAuthenticationFilter(JwtService jwtService, AuthRoutes authRoutes) {
     this.jwtService = jwtService;
+    this.authRoutes = authRoutes;
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    if (authRoutes.isPublic(request)) {
+      authRoutes.recordBypass(AuthRoutes.JWT_FILTER, request);
+      return true;
+    }
+    return false;
   }
 
   @Override
@@ -35,7 +46,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
     if (authHeader != null && authHeader.startsWith("Bearer ")) {
       String token = authHeader.substring(7);
-      String userId = jwtService.extractUserId(token);
+      long started = System.nanoTime();
+      String userId = null;
+      try {
+        userId = jwtService.extractUserId(token);
+      } finally {
+        authRoutes.recordAuthentication(AuthRoutes.JWT_FILTER, request, started, userId != null && !userId.isBlank());
+      }
       if (userId != null && !userId.isBlank()) {
         UsernamePasswordAuthenticationToken authentication =
             new UsernamePasswordAuthenticationToken(userId, token, List.of());
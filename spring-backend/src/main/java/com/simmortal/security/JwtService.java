@@ -1,27 +1,94 @@
 package com.simmortal.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import javax.crypto.SecretKey;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 @Service
 public class JwtService {
-  private final SecretKey secretKey;
+  private final JwtParser parser;
+  private final int maxCachedTokens;
+  private final long maxCacheMillis;
+  private final LinkedHashMap<String, VerifiedToken> verified;
+  private final Clock clock;
 
-  public JwtService(@Value("${app.jwt.secret}") String secret) {
-    this.secretKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+  @Autowired
+  public JwtService(
+      @Value("${app.jwt.secret}") String secret,
+      @Value("${app.jwt.cache.max-entries:10000}") int maxCachedTokens,
+      @Value("${app.jwt.cache.max-ttl:5m}") Duration maxCacheTtl
+  ) {
+    this(
+        parser(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)), Clock.systemUTC()),
+        maxCachedTokens,
+        maxCacheTtl,
+        Clock.systemUTC()
+    );
+  }
+
+  JwtService(JwtParser parser, int maxCachedTokens, Duration maxCacheTtl, Clock clock) {
+    this.parser = parser;
+    this.clock = clock;
+    this.maxCachedTokens = Math.max(0, maxCachedTokens);
+    this.maxCacheMillis = maxCacheTtl.toMillis();
+    this.verified = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+        return size() > JwtService.this.maxCachedTokens;
+      }
+    };
   }
 
   public String extractUserId(String token) {
-    Claims claims = Jwts.parser()
+    if (maxCachedTokens == 0 || maxCacheMillis <= 0) {
+      return userIdOf(parser.parseSignedClaims(token).getPayload());
+    }
+    String key = hash(token);
+    long now = clock.millis();
+    VerifiedToken cached;
+    synchronized (verified) {
+      cached = verified.get(key);
+    }
+    if (cached != null && cached.expiresAt() > now) {
+      return cached.userId();
+    }
+    Claims claims = parser.parseSignedClaims(token).getPayload();
+    String userId = userIdOf(claims);
+    long expiresAt = now + maxCacheMillis;
+    Date expiration = claims.getExpiration();
+    if (expiration != null) {
+      expiresAt = Math.min(expiresAt, expiration.getTime());
+    }
+    if (expiresAt > now) {
+      synchronized (verified) {
+        verified.put(key, new VerifiedToken(userId, expiresAt));
+      }
+    }
+    return userId;
+  }
+
+  static JwtParser parser(SecretKey secretKey, Clock clock) {
+    return Jwts.parser()
         .verifyWith(secretKey)
-        .build()
-        .parseSignedClaims(token)
-        .getPayload();
+        .clock(() -> Date.from(clock.instant()))
+        .build();
+  }
+
+  private String userIdOf(Claims claims) {
     String subject = claims.getSubject();
     if (subject != null && !subject.isBlank()) {
       return subject;
@@ -29,4 +96,15 @@ public class JwtService {
     Object userId = claims.get("userId");
     return userId == null ? null : userId.toString();
   }
+
+  private String hash(String token) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+      return Base64.getEncoder().encodeToString(digest);
+    } catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException("SHA-256 not available", ex);
+    }
+  }
+
+  private record VerifiedToken(String userId, long expiresAt) {}
 }
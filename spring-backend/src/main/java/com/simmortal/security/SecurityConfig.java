@@ -1,5 +1,6 @@
 package com.simmortal.security;
 
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.Customizer;
@@ -12,13 +13,16 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfig {
   private final JwtAuthenticationFilter jwtAuthenticationFilter;
   private final SupertokensAuthenticationFilter supertokensAuthenticationFilter;
+  private final AuthRoutes authRoutes;
 
   public SecurityConfig(
       JwtAuthenticationFilter jwtAuthenticationFilter,
-      SupertokensAuthenticationFilter supertokensAuthenticationFilter
+      SupertokensAuthenticationFilter supertokensAuthenticationFilter,
+      AuthRoutes authRoutes
   ) {
     this.jwtAuthenticationFilter = jwtAuthenticationFilter;
     this.supertokensAuthenticationFilter = supertokensAuthenticationFilter;
+    this.authRoutes = authRoutes;
   }
 
   @Bean
@@ -26,7 +30,7 @@ public class SecurityConfig {
     http
         .csrf(csrf -> csrf.disable())
         .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
-        .authorizeHttpRequests(auth -> auth.requestMatchers("/asset/**", "/auth/**", "/api-docs/**", "/swagger/**")
+        .authorizeHttpRequests(auth -> auth.requestMatchers(authRoutes.publicPaths())
             .permitAll()
             .anyRequest().authenticated())
         .httpBasic(Customizer.withDefaults())
@@ -34,4 +38,20 @@ public class SecurityConfig {
         .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
     return http.build();
   }
+
+  @Bean
+  public FilterRegistrationBean<JwtAuthenticationFilter> jwtAuthenticationFilterRegistration() {
+    FilterRegistrationBean<JwtAuthenticationFilter> registration =
+        new FilterRegistrationBean<>(jwtAuthenticationFilter);
+    registration.setEnabled(false);
+    return registration;
+  }
+
+  @Bean
+  public FilterRegistrationBean<SupertokensAuthenticationFilter> supertokensAuthenticationFilterRegistration() {
+    FilterRegistrationBean<SupertokensAuthenticationFilter> registration =
+        new FilterRegistrationBean<>(supertokensAuthenticationFilter);
+    registration.setEnabled(false);
+    return registration;
+  }
 }
@@ -21,9 +21,20 @@ import org.springframework.web.filter.OncePerRequestFilter;
 public class SupertokensAuthenticationFilter extends OncePerRequestFilter {
   private static final String USER_ID_HEADER = "X-User-Id";
   private final SupertokensSessionService sessionService;
+  private final AuthRoutes authRoutes;
 
-  public SupertokensAuthenticationFilter(SupertokensSessionService sessionService) {
+  public SupertokensAuthenticationFilter(SupertokensSessionService sessionService, AuthRoutes authRoutes) {
     this.sessionService = sessionService;
+    this.authRoutes = authRoutes;
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    if (authRoutes.isPublic(request)) {
+      authRoutes.recordBypass(AuthRoutes.SUPERTOKENS_FILTER, request);
+      return true;
+    }
+    return false;
   }
 
   @Override
@@ -36,7 +47,13 @@ public class SupertokensAuthenticationFilter extends OncePerRequestFilter {
       filterChain.doFilter(request, response);
       return;
     }
-    Optional<String> userId = sessionService.verifySession(request);
+    long started = System.nanoTime();
+    Optional<String> userId = Optional.empty();
+    try {
+      userId = sessionService.verifySession(request);
+    } finally {
+      authRoutes.recordAuthentication(AuthRoutes.SUPERTOKENS_FILTER, request, started, userId.isPresent());
+    }
     if (userId.isPresent()) {
       UsernamePasswordAuthenticationToken authentication =
           new UsernamePasswordAuthenticationToken(userId.get(), "supertokens", List.of());
@@ -0,0 +1,110 @@
+package com.simmortal.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.JwkSet;
+import io.jsonwebtoken.security.Jwks;
+import java.security.Key;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.client.RestTemplate;
+
+final class SupertokensJwtVerifier {
+  private static final Logger logger = LoggerFactory.getLogger(SupertokensJwtVerifier.class);
+  private static final long MIN_REFRESH_MILLIS = 30_000;
+
+  private final RestTemplate restTemplate;
+  private final String jwksUri;
+  private final long refreshMillis;
+  private final JwtParser parser;
+  private volatile Map<String, Key> keys = Map.of();
+  private volatile long fetchedAt;
+
+  SupertokensJwtVerifier(RestTemplate restTemplate, String jwksUri, Duration refreshInterval) {
+    this.restTemplate = restTemplate;
+    this.jwksUri = jwksUri;
+    this.refreshMillis = Math.max(MIN_REFRESH_MILLIS, refreshInterval.toMillis());
+    this.parser = Jwts.parser()
+        .keyLocator(new LocatorAdapter<Key>() {
+          @Override
+          protected Key locate(JwsHeader header) {
+            return keyFor(header.getKeyId());
+          }
+        })
+        .build();
+  }
+
+  Optional<String> verify(String accessToken, String antiCsrfToken, boolean antiCsrfEnabled) {
+    Claims claims;
+    try {
+      claims = parser.parseSignedClaims(accessToken).getPayload();
+    } catch (UnknownKeyException ex) {
+      throw ex;
+    } catch (JwtException | IllegalArgumentException ex) {
+      return Optional.empty();
+    }
+    if (antiCsrfEnabled) {
+      Object expected = claims.get("antiCsrfToken");
+      if (expected != null && !Objects.equals(expected.toString(), antiCsrfToken)) {
+        return Optional.empty();
+      }
+    }
+    String subject = claims.getSubject();
+    return subject == null || subject.isBlank() ? Optional.empty() : Optional.of(subject);
+  }
+
+  private Key keyFor(String keyId) {
+    if (keyId == null) {
+      throw new UnknownKeyException();
+    }
+    long now = System.currentTimeMillis();
+    Key key = keys.get(keyId);
+    if (key == null && now - fetchedAt >= MIN_REFRESH_MILLIS || now - fetchedAt >= refreshMillis) {
+      refresh(now);
+      key = keys.get(keyId);
+    }
+    if (key == null) {
+      throw new UnknownKeyException();
+    }
+    return key;
+  }
+
+  private synchronized void refresh(long requestedAt) {
+    if (fetchedAt != 0 && fetchedAt > requestedAt - MIN_REFRESH_MILLIS) {
+      return;
+    }
+    try {
+      String body = restTemplate.getForObject(jwksUri, String.class);
+      if (body != null) {
+        JwkSet set = Jwks.setParser().build().parse(body);
+        Map<String, Key> loaded = new HashMap<>();
+        for (Jwk<?> jwk : set.getKeys()) {
+          if (jwk.getId() != null) {
+            loaded.put(jwk.getId(), jwk.toKey());
+          }
+        }
+        keys = Map.copyOf(loaded);
+      }
+    } catch (RuntimeException ex) {
+      logger.warn("Failed to fetch Supertokens signing keys from {}", jwksUri, ex);
+    } finally {
+      fetchedAt = System.currentTimeMillis();
+    }
+  }
+
+  static final class UnknownKeyException extends RuntimeException {
+    UnknownKeyException() {
+      super(null, null, false, false);
+    }
+  }
+}
@@ -3,14 +3,25 @@ package com.simmortal.security;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
@@ -18,20 +29,52 @@ import org.springframework.web.client.RestTemplate;
 public class SupertokensSessionService {
   private static final String ACCESS_TOKEN_COOKIE = "sAccessToken";
   private static final String ANTI_CSRF_HEADER = "anti-csrf";
-  private final RestTemplate restTemplate = new RestTemplate();
+  private final RestTemplate restTemplate;
   private final ObjectMapper objectMapper = new ObjectMapper();
   private final String connectionUri;
   private final String apiKey;
   private final boolean antiCsrfEnabled;
+  private final long cacheTtlMillis;
+  private final long followerTimeoutMillis;
+  private final int maxCachedSessions;
+  private final LinkedHashMap<String, VerifiedSession> verified;
+  private final Map<String, CompletableFuture<Optional<String>>> verifying = new ConcurrentHashMap<>();
+  private final SupertokensJwtVerifier localVerifier;
 
   public SupertokensSessionService(
       @Value("${app.supertokens.connection-uri}") String connectionUri,
       @Value("${app.supertokens.api-key:}") String apiKey,
-      @Value("${app.supertokens.anti-csrf:true}") boolean antiCsrfEnabled
+      @Value("${app.supertokens.anti-csrf:true}") boolean antiCsrfEnabled,
+      @Value("${app.supertokens.connect-timeout:2s}") Duration connectTimeout,
+      @Value("${app.supertokens.read-timeout:3s}") Duration readTimeout,
+      @Value("${app.supertokens.verify-cache.ttl:30s}") Duration cacheTtl,
+      @Value("${app.supertokens.verify-cache.max-entries:10000}") int maxCachedSessions,
+      @Value("${app.supertokens.local-verification.enabled:false}") boolean localVerification,
+      @Value("${app.supertokens.local-verification.jwks-path:/.well-known/jwks.json}") String jwksPath,
+      @Value("${app.supertokens.local-verification.jwks-refresh:1h}") Duration jwksRefresh
   ) {
     this.connectionUri = connectionUri;
     this.apiKey = apiKey;
     this.antiCsrfEnabled = antiCsrfEnabled;
+    HttpClient httpClient = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(connectTimeout)
+        .build();
+    JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+    requestFactory.setReadTimeout(readTimeout);
+    this.restTemplate = new RestTemplate(requestFactory);
+    this.cacheTtlMillis = cacheTtl.toMillis();
+    this.followerTimeoutMillis = connectTimeout.plus(readTimeout).multipliedBy(2).toMillis();
+    this.maxCachedSessions = Math.max(0, maxCachedSessions);
+    this.verified = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, VerifiedSession> eldest) {
+        return size() > SupertokensSessionService.this.maxCachedSessions;
+      }
+    };
+    this.localVerifier = localVerification
+        ? new SupertokensJwtVerifier(restTemplate, connectionUri + jwksPath, jwksRefresh)
+        : null;
   }
 
   public Optional<String> verifySession(HttpServletRequest request) {
@@ -40,7 +83,49 @@ public class SupertokensSessionService {
       return Optional.empty();
     }
     String antiCsrfToken = request.getHeader(ANTI_CSRF_HEADER);
+    String key = hash(accessToken, antiCsrfEnabled ? antiCsrfToken : null);
+    long now = System.currentTimeMillis();
+    VerifiedSession cached;
+    synchronized (verified) {
+      cached = verified.get(key);
+    }
+    if (cached != null && cached.expiresAt() > now) {
+      return Optional.of(cached.userId());
+    }
+
+    CompletableFuture<Optional<String>> created = new CompletableFuture<>();
+    CompletableFuture<Optional<String>> existing = verifying.putIfAbsent(key, created);
+    if (existing != null) {
+      return existing.copy()
+          .orTimeout(followerTimeoutMillis, TimeUnit.MILLISECONDS)
+          .exceptionally(ex -> Optional.empty())
+          .join();
+    }
+    Optional<String> userId = Optional.empty();
+    try {
+      userId = verify(accessToken, antiCsrfToken);
+      userId.ifPresent(id -> remember(key, id, accessToken, now));
+      return userId;
+    } catch (RuntimeException ex) {
+      return Optional.empty();
+    } finally {
+      created.complete(userId);
+      verifying.remove(key, created);
+    }
+  }
 
+  private Optional<String> verify(String accessToken, String antiCsrfToken) {
+    if (localVerifier != null) {
+      try {
+        return localVerifier.verify(accessToken, antiCsrfToken, antiCsrfEnabled);
+      } catch (SupertokensJwtVerifier.UnknownKeyException ex) {
+        return verifyRemotely(accessToken, antiCsrfToken);
+      }
+    }
+    return verifyRemotely(accessToken, antiCsrfToken);
+  }
+
+  private Optional<String> verifyRemotely(String accessToken, String antiCsrfToken) {
     Map<String, Object> payload = new HashMap<>();
     payload.put("accessToken", accessToken);
     payload.put("antiCsrfToken", antiCsrfToken);
@@ -71,6 +156,56 @@ public class SupertokensSessionService {
     }
   }
 
+  private void remember(String key, String userId, String accessToken, long now) {
+    if (cacheTtlMillis <= 0 || maxCachedSessions == 0) {
+      return;
+    }
+    long expiresAt = now + cacheTtlMillis;
+    Long tokenExpiry = tokenExpiry(accessToken);
+    if (tokenExpiry != null) {
+      expiresAt = Math.min(expiresAt, tokenExpiry);
+    }
+    if (expiresAt <= now) {
+      return;
+    }
+    synchronized (verified) {
+      verified.put(key, new VerifiedSession(userId, expiresAt));
+    }
+  }
+
+  private Long tokenExpiry(String accessToken) {
+    String[] parts = accessToken.split("\\.");
+    if (parts.length != 3) {
+      return null;
+    }
+    try {
+      Map<?, ?> claims = objectMapper.readValue(Base64.getUrlDecoder().decode(parts[1]), Map.class);
+      if (claims.get("exp") instanceof Number exp) {
+        return exp.longValue() * 1000;
+      }
+      if (claims.get("expiryTime") instanceof Number expiryTime) {
+        return expiryTime.longValue();
+      }
+      return null;
+    } catch (Exception ex) {
+      return null;
+    }
+  }
+
+  private String hash(String accessToken, String antiCsrfToken) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      digest.update(accessToken.getBytes(StandardCharsets.UTF_8));
+      if (antiCsrfToken != null) {
+        digest.update((byte) 0);
+        digest.update(antiCsrfToken.getBytes(StandardCharsets.UTF_8));
+      }
+      return Base64.getEncoder().encodeToString(digest.digest());
+    } catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException("SHA-256 not available", ex);
+    }
+  }
+
   private String getAccessToken(HttpServletRequest request) {
     if (request.getCookies() == null) {
       return null;
@@ -82,4 +217,6 @@ public class SupertokensSessionService {
     }
     return null;
   }
+
+  private record VerifiedSession(String userId, long expiresAt) {}
 }
@@ -0,0 +1,96 @@
+package com.simmortal.storage;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+final class BulkDeleter implements AutoCloseable {
+  private final ExecutorService executor;
+
+  BulkDeleter(String threadPrefix, int parallelism) {
+    AtomicInteger threadIndex = new AtomicInteger();
+    this.executor = Executors.newFixedThreadPool(Math.max(1, parallelism), runnable -> {
+      Thread thread = new Thread(runnable, threadPrefix + "-" + threadIndex.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  StorageService.DeleteResult run(Collection<String> paths, int groupSize, GroupDelete delete) {
+    List<String> unique = paths.stream()
+        .filter(path -> path != null && !path.isBlank())
+        .distinct()
+        .toList();
+    Tally tally = new Tally();
+    if (unique.isEmpty()) {
+      return tally.result();
+    }
+    int size = Math.max(1, groupSize);
+    List<CompletableFuture<Void>> pending = new ArrayList<>();
+    for (int from = 0; from < unique.size(); from += size) {
+      List<String> group = unique.subList(from, Math.min(unique.size(), from + size));
+      pending.add(CompletableFuture.runAsync(() -> {
+        try {
+          delete.delete(group, tally);
+        } catch (RuntimeException ex) {
+          tally.failUnreported(group, ex);
+        }
+      }, executor));
+    }
+    CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).join();
+    return tally.result();
+  }
+
+  @Override
+  public void close() {
+    executor.shutdown();
+  }
+
+  interface GroupDelete {
+    void delete(List<String> group, Tally tally);
+  }
+
+  static final class Tally {
+    private final Map<String, Boolean> outcomes = new LinkedHashMap<>();
+    private final Map<String, String> failures = new LinkedHashMap<>();
+
+    synchronized void deleted(String path) {
+      outcomes.put(path, true);
+    }
+
+    synchronized void missing(String path) {
+      outcomes.put(path, false);
+    }
+
+    synchronized void failed(String path, Exception ex) {
+      failures.put(path, ex.getMessage() == null ? ex.getClass().getSimpleName() : ex.getMessage());
+    }
+
+    synchronized void failUnreported(List<String> group, Exception ex) {
+      for (String path : group) {
+        if (!outcomes.containsKey(path) && !failures.containsKey(path)) {
+          failed(path, ex);
+        }
+      }
+    }
+
+    synchronized StorageService.DeleteResult result() {
+      int deleted = 0;
+      List<String> missing = new ArrayList<>();
+      for (Map.Entry<String, Boolean> outcome : outcomes.entrySet()) {
+        if (outcome.getValue()) {
+          deleted++;
+        } else {
+          missing.add(outcome.getKey());
+        }
+      }
+      return new StorageService.DeleteResult(deleted, missing, Map.copyOf(failures));
+    }
+  }
+}
@@ -0,0 +1,253 @@
+package com.simmortal.storage;
+
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.cloud.ReadChannel;
+import com.google.cloud.BatchResult;
+import com.google.cloud.WriteChannel;
+import com.google.cloud.storage.Blob;
+import com.google.cloud.storage.BlobId;
+import com.google.cloud.storage.BlobInfo;
+import com.google.cloud.storage.Storage;
+import com.google.cloud.storage.Storage.BlobField;
+import com.google.cloud.storage.Storage.BlobListOption;
+import com.google.cloud.storage.StorageBatch;
+import com.google.cloud.storage.StorageException;
+import com.google.cloud.storage.StorageOptions;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.unit.DataSize;
+
+public class GcsStorageBackend implements StorageBackend, AutoCloseable {
+  private static final Logger logger = LoggerFactory.getLogger(GcsStorageBackend.class);
+  private static final int READ_CHUNK_SIZE = 256 * 1024;
+  private static final int COPY_BUFFER_SIZE = 16 * 1024;
+  private static final int WRITE_CHUNK_GRANULARITY = 256 * 1024;
+  private static final int MAX_BATCH_SIZE = 100;
+  private final Storage storage;
+  private final String bucketName;
+  private final int writeChunkSize;
+  private final int deleteBatchSize;
+  private final BulkDeleter bulkDeleter;
+  private final Duration signedUrlLifetime;
+
+  public GcsStorageBackend(
+      DataSize uploadChunkSize,
+      int deleteBatchSize,
+      int deleteParallelism,
+      Duration signedUrlLifetime
+  ) {
+    this.bucketName = Optional.ofNullable(System.getenv("GCLOUD_STORAGE_BUCKET")).orElse("simmortals-dev");
+    this.storage = initializeStorage();
+    long chunks = Math.max(1, (uploadChunkSize.toBytes() + WRITE_CHUNK_GRANULARITY - 1) / WRITE_CHUNK_GRANULARITY);
+    this.writeChunkSize = (int) Math.min(chunks * WRITE_CHUNK_GRANULARITY, Integer.MAX_VALUE - WRITE_CHUNK_GRANULARITY);
+    this.deleteBatchSize = Math.max(1, Math.min(MAX_BATCH_SIZE, deleteBatchSize));
+    this.bulkDeleter = new BulkDeleter("storage-delete", deleteParallelism);
+    this.signedUrlLifetime = signedUrlLifetime;
+  }
+
+  @Override
+  public void save(String path, byte[] data, String contentType) {
+    ensureConfigured();
+    BlobId blobId = BlobId.of(bucketName, path);
+    BlobInfo info = BlobInfo.newBuilder(blobId).setContentType(contentType).build();
+    storage.create(info, data);
+  }
+
+  @Override
+  public void save(String path, InputStream input, String contentType, long length) throws IOException {
+    ensureConfigured();
+    BlobInfo info = BlobInfo.newBuilder(BlobId.of(bucketName, path)).setContentType(contentType).build();
+    if (length >= 0 && length <= writeChunkSize) {
+      byte[] data = input.readNBytes((int) length);
+      if (data.length != length || input.read() != -1) {
+        throw new IOException("Upload of " + path + " does not match its declared length of " + length + " bytes");
+      }
+      storage.create(info, data);
+      return;
+    }
+    WriteChannel writer = storage.writer(info);
+    writer.setChunkSize(writeChunkSize);
+    byte[] buffer = new byte[COPY_BUFFER_SIZE];
+    long written = 0;
+    int read;
+    while ((read = input.read(buffer)) != -1) {
+      if (length >= 0 && written + read > length) {
+        throw new IOException("Upload of " + path + " exceeds its declared length of " + length + " bytes");
+      }
+      ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, read);
+      while (chunk.hasRemaining()) {
+        writer.write(chunk);
+      }
+      written += read;
+    }
+    if (length >= 0 && written != length) {
+      throw new IOException("Upload of " + path + " ended after " + written + " of " + length + " bytes");
+    }
+    writer.close();
+  }
+
+  @Override
+  public boolean exists(String path) {
+    ensureConfigured();
+    return storage.get(BlobId.of(bucketName, path)) != null;
+  }
+
+  @Override
+  public StorageService.StorageObject download(String path) {
+    ensureConfigured();
+    Blob blob = storage.get(BlobId.of(bucketName, path));
+    if (blob == null) {
+      return null;
+    }
+    return new StorageService.StorageObject(blob.getContent(), blob.getContentType());
+  }
+
+  @Override
+  public StorageService.StorageObjectInfo describe(String path) {
+    ensureConfigured();
+    Blob blob = storage.get(BlobId.of(bucketName, path));
+    if (blob == null) {
+      return null;
+    }
+    return new StorageService.StorageObjectInfo(
+        blob.getContentType(),
+        Optional.ofNullable(blob.getSize()).orElse(0L),
+        blob.getGeneration(),
+        blob.getMd5(),
+        blob.getUpdateTimeOffsetDateTime() == null ? null : blob.getUpdateTimeOffsetDateTime().toInstant().toEpochMilli()
+    );
+  }
+
+  @Override
+  public long copyRange(String path, Long generation, long start, long length, OutputStream output)
+      throws IOException {
+    ensureConfigured();
+    if (length <= 0) {
+      return 0;
+    }
+    BlobId blobId = generation == null ? BlobId.of(bucketName, path) : BlobId.of(bucketName, path, generation);
+    try (ReadChannel reader = storage.reader(blobId)) {
+      reader.setChunkSize((int) Math.min(READ_CHUNK_SIZE, Math.max(length, COPY_BUFFER_SIZE)));
+      reader.seek(start);
+      reader.limit(start + length);
+      ByteBuffer buffer = ByteBuffer.allocate(COPY_BUFFER_SIZE);
+      long remaining = length;
+      while (remaining > 0) {
+        buffer.clear();
+        if (remaining < buffer.capacity()) {
+          buffer.limit((int) remaining);
+        }
+        int read = reader.read(buffer);
+        if (read < 0) {
+          break;
+        }
+        output.write(buffer.array(), 0, read);
+        remaining -= read;
+      }
+      return length - remaining;
+    }
+  }
+
+  @Override
+  public void delete(String path) {
+    ensureConfigured();
+    storage.delete(BlobId.of(bucketName, path));
+  }
+
+  @Override
+  public StorageService.DeleteResult deleteAll(Collection<String> paths) {
+    ensureConfigured();
+    return bulkDeleter.run(paths, deleteBatchSize, this::deleteBatch);
+  }
+
+  @Override
+  public StorageService.DeleteResult deleteFolder(String prefix) {
+    ensureConfigured();
+    List<String> paths = new ArrayList<>();
+    storage.list(bucketName, BlobListOption.prefix(prefix), BlobListOption.fields(BlobField.NAME))
+        .iterateAll()
+        .forEach(blob -> paths.add(blob.getName()));
+    return deleteAll(paths);
+  }
+
+  @Override
+  public void close() {
+    bulkDeleter.close();
+  }
+
+  @Override
+  public String generateSignedUrl(String path) {
+    ensureConfigured();
+    BlobInfo info = BlobInfo.newBuilder(BlobId.of(bucketName, path)).build();
+    return storage.signUrl(info, signedUrlLifetime.toSeconds(), TimeUnit.SECONDS).toString();
+  }
+
+  private void deleteBatch(List<String> paths, BulkDeleter.Tally tally) {
+    StorageBatch batch = storage.batch();
+    for (String path : paths) {
+      batch.delete(BlobId.of(bucketName, path)).notify(new BatchResult.Callback<>() {
+        @Override
+        public void success(Boolean deleted) {
+          if (Boolean.TRUE.equals(deleted)) {
+            tally.deleted(path);
+          } else {
+            tally.missing(path);
+          }
+        }
+
+        @Override
+        public void error(StorageException ex) {
+          if (ex.getCode() == 404) {
+            tally.missing(path);
+          } else {
+            tally.failed(path, ex);
+          }
+        }
+      });
+    }
+    batch.submit();
+  }
+
+  private Storage initializeStorage() {
+    String credentialsJson = System.getenv("GCLOUD_STORAGE_CREDENTIALS_JSON");
+    if (credentialsJson != null && !credentialsJson.isBlank()) {
+      try {
+        String decoded = decodeIfBase64(credentialsJson);
+        GoogleCredentials credentials =
+            GoogleCredentials.fromStream(new ByteArrayInputStream(decoded.getBytes(StandardCharsets.UTF_8)));
+        return StorageOptions.newBuilder().setCredentials(credentials).build().getService();
+      } catch (IOException ex) {
+        logger.error("Failed to parse GCLOUD_STORAGE_CREDENTIALS_JSON", ex);
+      }
+    }
+    logger.warn("GCLOUD_STORAGE_CREDENTIALS_JSON not configured; using default credentials");
+    return StorageOptions.getDefaultInstance().getService();
+  }
+
+  private String decodeIfBase64(String value) {
+    try {
+      return new String(Base64.getDecoder().decode(value), StandardCharsets.UTF_8);
+    } catch (IllegalArgumentException ex) {
+      return value;
+    }
+  }
+
+  private void ensureConfigured() {
+    if (storage == null) {
+      throw new IllegalStateException("Storage client is not configured.");
+    }
+  }
+}
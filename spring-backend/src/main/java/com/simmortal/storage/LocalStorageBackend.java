@@ -0,0 +1,241 @@
+package com.simmortal.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+public class LocalStorageBackend implements StorageBackend, AutoCloseable {
+  private static final Logger logger = LoggerFactory.getLogger(LocalStorageBackend.class);
+  private static final String OBJECTS = "objects";
+  private static final String METADATA = "metadata";
+  private static final String STAGING = "staging";
+
+  private final Path objects;
+  private final Path metadata;
+  private final Path staging;
+  private final String urlPrefix;
+  private final BulkDeleter bulkDeleter;
+
+  public LocalStorageBackend(Path root, String urlPrefix, int deleteParallelism) {
+    Path base = root.toAbsolutePath().normalize();
+    this.objects = base.resolve(OBJECTS);
+    this.metadata = base.resolve(METADATA);
+    this.staging = base.resolve(STAGING);
+    this.urlPrefix = urlPrefix;
+    this.bulkDeleter = new BulkDeleter("storage-delete", deleteParallelism);
+    try {
+      Files.createDirectories(objects);
+      Files.createDirectories(metadata);
+      Files.createDirectories(staging);
+    } catch (IOException ex) {
+      throw new IllegalStateException("Unable to prepare local storage directory " + base, ex);
+    }
+    logger.info("Using local storage at {}", base);
+  }
+
+  @Override
+  public void save(String path, byte[] data, String contentType) {
+    try {
+      write(path, contentType, temp -> Files.write(temp, data, StandardOpenOption.CREATE_NEW));
+    } catch (IOException ex) {
+      throw new UncheckedIOException("Failed to store " + path, ex);
+    }
+  }
+
+  @Override
+  public void save(String path, InputStream input, String contentType, long length) throws IOException {
+    write(path, contentType, temp -> {
+      long written = Files.copy(input, temp);
+      if (length >= 0 && written != length) {
+        throw new IOException("Upload of " + path + " wrote " + written + " of " + length + " bytes");
+      }
+    });
+  }
+
+  @Override
+  public boolean exists(String path) {
+    return Files.isRegularFile(objectFile(path));
+  }
+
+  @Override
+  public StorageService.StorageObject download(String path) {
+    try {
+      return new StorageService.StorageObject(Files.readAllBytes(objectFile(path)), contentTypeOf(path));
+    } catch (NoSuchFileException ex) {
+      return null;
+    } catch (IOException ex) {
+      throw new UncheckedIOException("Failed to read " + path, ex);
+    }
+  }
+
+  @Override
+  public StorageService.StorageObjectInfo describe(String path) {
+    try {
+      BasicFileAttributes attributes = Files.readAttributes(objectFile(path), BasicFileAttributes.class);
+      if (!attributes.isRegularFile()) {
+        return null;
+      }
+      return new StorageService.StorageObjectInfo(
+          contentTypeOf(path),
+          attributes.size(),
+          attributes.lastModifiedTime().to(TimeUnit.MICROSECONDS),
+          null,
+          attributes.lastModifiedTime().toMillis()
+      );
+    } catch (NoSuchFileException ex) {
+      return null;
+    } catch (IOException ex) {
+      throw new UncheckedIOException("Failed to describe " + path, ex);
+    }
+  }
+
+  @Override
+  public long copyRange(String path, Long generation, long start, long length, OutputStream output)
+      throws IOException {
+    if (length <= 0) {
+      return 0;
+    }
+    try (FileChannel channel = FileChannel.open(objectFile(path), StandardOpenOption.READ)) {
+      WritableByteChannel target = Channels.newChannel(output);
+      long sent = 0;
+      while (sent < length) {
+        long transferred = channel.transferTo(start + sent, length - sent, target);
+        if (transferred <= 0) {
+          break;
+        }
+        sent += transferred;
+      }
+      return sent;
+    }
+  }
+
+  @Override
+  public void delete(String path) {
+    try {
+      Files.deleteIfExists(objectFile(path));
+      Files.deleteIfExists(metadataFile(path));
+    } catch (IOException ex) {
+      throw new UncheckedIOException("Failed to delete " + path, ex);
+    }
+  }
+
+  @Override
+  public StorageService.DeleteResult deleteAll(Collection<String> paths) {
+    return bulkDeleter.run(paths, 1, (group, tally) -> {
+      for (String path : group) {
+        try {
+          Files.deleteIfExists(metadataFile(path));
+          if (Files.deleteIfExists(objectFile(path))) {
+            tally.deleted(path);
+          } else {
+            tally.missing(path);
+          }
+        } catch (IOException | RuntimeException ex) {
+          tally.failed(path, ex);
+        }
+      }
+    });
+  }
+
+  @Override
+  public StorageService.DeleteResult deleteFolder(String prefix) {
+    return deleteAll(list(prefix));
+  }
+
+  @Override
+  public void close() {
+    bulkDeleter.close();
+  }
+
+  @Override
+  public String generateSignedUrl(String path) {
+    objectFile(path);
+    return urlPrefix + path;
+  }
+
+  private List<String> list(String prefix) {
+    int slash = prefix.lastIndexOf('/');
+    Path start = slash < 0 ? objects : objectFile(prefix.substring(0, slash));
+    if (!Files.isDirectory(start)) {
+      return List.of();
+    }
+    List<String> paths = new ArrayList<>();
+    try (Stream<Path> files = Files.walk(start)) {
+      files.filter(Files::isRegularFile)
+          .map(file -> objects.relativize(file).toString().replace('\\', '/'))
+          .filter(path -> path.startsWith(prefix))
+          .forEach(paths::add);
+    } catch (IOException ex) {
+      throw new UncheckedIOException("Failed to list " + prefix, ex);
+    }
+    return paths;
+  }
+
+  private void write(String path, String contentType, StagedWrite body) throws IOException {
+    Path target = objectFile(path);
+    Path metadataTarget = metadataFile(path);
+    Path temp = staging.resolve(UUID.randomUUID() + ".part");
+    Path metadataTemp = staging.resolve(UUID.randomUUID() + ".meta");
+    try {
+      body.write(temp);
+      Files.writeString(metadataTemp, contentType == null ? "" : contentType, StandardCharsets.UTF_8);
+      Files.createDirectories(target.getParent());
+      Files.createDirectories(metadataTarget.getParent());
+      Files.move(metadataTemp, metadataTarget, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    } finally {
+      Files.deleteIfExists(temp);
+      Files.deleteIfExists(metadataTemp);
+    }
+  }
+
+  private String contentTypeOf(String path) throws IOException {
+    try {
+      String contentType = Files.readString(metadataFile(path), StandardCharsets.UTF_8);
+      return contentType.isEmpty() ? null : contentType;
+    } catch (NoSuchFileException ex) {
+      return Files.probeContentType(objectFile(path));
+    }
+  }
+
+  private Path objectFile(String path) {
+    return resolve(objects, path);
+  }
+
+  private Path metadataFile(String path) {
+    return resolve(metadata, path);
+  }
+
+  private Path resolve(Path base, String path) {
+    Path resolved = base.resolve(path).normalize();
+    if (!resolved.startsWith(base) || resolved.equals(base)) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid storage path");
+    }
+    return resolved;
+  }
+
+  private interface StagedWrite {
+    void write(Path temp) throws IOException;
+  }
+}
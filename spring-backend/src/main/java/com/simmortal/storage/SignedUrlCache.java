@@ -0,0 +1,79 @@
+package com.simmortal.storage;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class SignedUrlCache {
+  private final long ttlMillis;
+  private final int maxEntries;
+  private final LinkedHashMap<String, CachedUrl> entries;
+  private final Counter hits;
+  private final Counter misses;
+  private final Timer signing;
+
+  public SignedUrlCache(
+      @Value("${app.storage.signed-url.cache-ttl:5m}") Duration ttl,
+      @Value("${app.storage.signed-url.lifetime:10m}") Duration lifetime,
+      @Value("${app.storage.signed-url.safety-margin:1m}") Duration safetyMargin,
+      @Value("${app.storage.signed-url.cache-max-entries:10000}") int maxEntries,
+      MeterRegistry meterRegistry
+  ) {
+    if (ttl.compareTo(lifetime) >= 0) {
+      throw new IllegalStateException(
+          "app.storage.signed-url.cache-ttl (" + ttl + ") must be shorter than the URL lifetime (" + lifetime + ")");
+    }
+    this.ttlMillis = Math.min(ttl.toMillis(), lifetime.minus(safetyMargin).toMillis());
+    this.maxEntries = Math.max(0, maxEntries);
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, CachedUrl> eldest) {
+        return size() > SignedUrlCache.this.maxEntries;
+      }
+    };
+    this.hits = Counter.builder("storage.signed-url.cache.requests")
+        .tag("result", "hit")
+        .register(meterRegistry);
+    this.misses = Counter.builder("storage.signed-url.cache.requests")
+        .tag("result", "miss")
+        .register(meterRegistry);
+    this.signing = Timer.builder("storage.signed-url.sign")
+        .register(meterRegistry);
+    Gauge.builder("storage.signed-url.cache.size", this, SignedUrlCache::size)
+        .register(meterRegistry);
+  }
+
+  public String get(String path, Function<String, String> signer) {
+    long now = System.currentTimeMillis();
+    CachedUrl cached;
+    synchronized (this) {
+      cached = entries.get(path);
+    }
+    if (cached != null && cached.expiresAt() > now) {
+      hits.increment();
+      return cached.url();
+    }
+    misses.increment();
+    String url = signing.record(() -> signer.apply(path));
+    if (ttlMillis > 0 && maxEntries > 0) {
+      synchronized (this) {
+        entries.put(path, new CachedUrl(url, now + ttlMillis));
+      }
+    }
+    return url;
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  private record CachedUrl(String url, long expiresAt) {}
+}
@@ -0,0 +1,5 @@
+package com.simmortal.storage;
+
+import java.util.List;
+
+public record SignedUrlsRequest(List<String> paths) {}
@@ -0,0 +1,28 @@
+package com.simmortal.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collection;
+
+public interface StorageBackend {
+  void save(String path, byte[] data, String contentType);
+
+  void save(String path, InputStream input, String contentType, long length) throws IOException;
+
+  boolean exists(String path);
+
+  StorageService.StorageObject download(String path);
+
+  StorageService.StorageObjectInfo describe(String path);
+
+  long copyRange(String path, Long generation, long start, long length, OutputStream output) throws IOException;
+
+  void delete(String path);
+
+  StorageService.DeleteResult deleteAll(Collection<String> paths);
+
+  StorageService.DeleteResult deleteFolder(String prefix);
+
+  String generateSignedUrl(String path);
+}
@@ -0,0 +1,9 @@
+package com.simmortal.storage;
+
+import java.util.List;
+
+public record StorageChangedEvent(List<String> paths, String prefix) {
+  public boolean affects(String path) {
+    return paths.contains(path) || prefix != null && path.startsWith(prefix);
+  }
+}
@@ -1,7 +1,33 @@
 package com.simmortal.storage;
 
+import java.nio.file.Path;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
 
 @Configuration
 public class StorageConfig {
+  @Bean
+  @ConditionalOnProperty(name = "app.storage.backend", havingValue = "gcs", matchIfMissing = true)
+  public StorageBackend gcsStorageBackend(
+      @Value("${app.storage.upload-chunk-size:2MB}") DataSize uploadChunkSize,
+      @Value("${app.storage.delete.batch-size:100}") int deleteBatchSize,
+      @Value("${app.storage.delete.parallelism:4}") int deleteParallelism,
+      @Value("${app.storage.signed-url.lifetime:10m}") Duration signedUrlLifetime
+  ) {
+    return new GcsStorageBackend(uploadChunkSize, deleteBatchSize, deleteParallelism, signedUrlLifetime);
+  }
+
+  @Bean
+  @ConditionalOnProperty(name = "app.storage.backend", havingValue = "local")
+  public StorageBackend localStorageBackend(
+      @Value("${app.storage.local.root:${java.io.tmpdir}/simmortal-storage}") String root,
+      @Value("${server.servlet.context-path:}${app.storage.local.url-prefix:/asset/}") String urlPrefix,
+      @Value("${app.storage.delete.parallelism:4}") int deleteParallelism
+  ) {
+    return new LocalStorageBackend(Path.of(root), urlPrefix, deleteParallelism);
+  }
 }
@@ -6,6 +6,8 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -35,4 +37,9 @@ public class StorageController {
   public ResponseEntity<Map<String, String>> signedUrl(@RequestParam @NotBlank String path) {
     return ResponseEntity.ok(Map.of("url", storageService.generateSignedUrl(path)));
   }
+
+  @PostMapping("/signed-urls")
+  public ResponseEntity<Map<String, Map<String, String>>> signedUrls(@RequestBody SignedUrlsRequest request) {
+    return ResponseEntity.ok(Map.of("urls", storageService.generateSignedUrls(request.paths())));
+  }
 }
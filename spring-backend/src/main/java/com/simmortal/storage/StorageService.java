@@ -1,99 +1,131 @@
 package com.simmortal.storage;
 
-import com.google.auth.oauth2.GoogleCredentials;
-import com.google.cloud.storage.Blob;
-import com.google.cloud.storage.BlobId;
-import com.google.cloud.storage.BlobInfo;
-import com.google.cloud.storage.Storage;
-import com.google.cloud.storage.Storage.BlobListOption;
-import com.google.cloud.storage.StorageOptions;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.time.Duration;
-import java.util.Base64;
-import java.util.Optional;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
 @Service
 public class StorageService {
-  private static final Logger logger = LoggerFactory.getLogger(StorageService.class);
-  private final Storage storage;
-  private final String bucketName;
+  private final StorageBackend backend;
+  private final SignedUrlCache signedUrlCache;
+  private final int maxSignedUrlBatch;
+  private final ApplicationEventPublisher eventPublisher;
 
-  public StorageService() {
-    this.bucketName = Optional.ofNullable(System.getenv("GCLOUD_STORAGE_BUCKET")).orElse("simmortals-dev");
-    this.storage = initializeStorage();
+  public StorageService(
+      StorageBackend backend,
+      SignedUrlCache signedUrlCache,
+      @Value("${app.storage.signed-url.max-batch:200}") int maxSignedUrlBatch,
+      ApplicationEventPublisher eventPublisher
+  ) {
+    this.backend = backend;
+    this.signedUrlCache = signedUrlCache;
+    this.maxSignedUrlBatch = maxSignedUrlBatch;
+    this.eventPublisher = eventPublisher;
   }
 
   public void save(String path, byte[] data, String contentType) {
-    ensureConfigured();
-    BlobId blobId = BlobId.of(bucketName, path);
-    BlobInfo info = BlobInfo.newBuilder(blobId).setContentType(contentType).build();
-    storage.create(info, data);
+    try {
+      backend.save(path, data, contentType);
+    } finally {
+      changed(List.of(path), null);
+    }
+  }
+
+  public void save(String path, InputStream input, String contentType, long length) throws IOException {
+    try {
+      backend.save(path, input, contentType, length);
+    } finally {
+      changed(List.of(path), null);
+    }
   }
 
   public boolean exists(String path) {
-    ensureConfigured();
-    return storage.get(BlobId.of(bucketName, path)) != null;
+    return backend.exists(path);
   }
 
   public StorageObject download(String path) {
-    ensureConfigured();
-    Blob blob = storage.get(BlobId.of(bucketName, path));
-    if (blob == null) {
-      return null;
-    }
-    return new StorageObject(blob.getContent(), blob.getContentType());
+    return backend.download(path);
   }
 
-  public void delete(String path) {
-    ensureConfigured();
-    storage.delete(BlobId.of(bucketName, path));
+  public StorageObjectInfo describe(String path) {
+    return backend.describe(path);
   }
 
-  public void deleteFolder(String prefix) {
-    ensureConfigured();
-    storage.list(bucketName, BlobListOption.prefix(prefix)).iterateAll().forEach(blob -> storage.delete(blob.getBlobId()));
+  public long copyRange(String path, Long generation, long start, long length, OutputStream output)
+      throws IOException {
+    return backend.copyRange(path, generation, start, length, output);
   }
 
-  public String generateSignedUrl(String path) {
-    ensureConfigured();
-    BlobInfo info = BlobInfo.newBuilder(BlobId.of(bucketName, path)).build();
-    return storage.signUrl(info, 10, java.util.concurrent.TimeUnit.MINUTES).toString();
+  public void delete(String path) {
+    try {
+      backend.delete(path);
+    } finally {
+      changed(List.of(path), null);
+    }
   }
 
-  private Storage initializeStorage() {
-    String credentialsJson = System.getenv("GCLOUD_STORAGE_CREDENTIALS_JSON");
-    if (credentialsJson != null && !credentialsJson.isBlank()) {
-      try {
-        String decoded = decodeIfBase64(credentialsJson);
-        GoogleCredentials credentials =
-            GoogleCredentials.fromStream(new ByteArrayInputStream(decoded.getBytes(StandardCharsets.UTF_8)));
-        return StorageOptions.newBuilder().setCredentials(credentials).build().getService();
-      } catch (IOException ex) {
-        logger.error("Failed to parse GCLOUD_STORAGE_CREDENTIALS_JSON", ex);
-      }
+  public DeleteResult deleteAll(Collection<String> paths) {
+    try {
+      return backend.deleteAll(paths);
+    } finally {
+      changed(paths.stream().filter(path -> path != null && !path.isBlank()).distinct().toList(), null);
     }
-    logger.warn("GCLOUD_STORAGE_CREDENTIALS_JSON not configured; using default credentials");
-    return StorageOptions.getDefaultInstance().getService();
   }
 
-  private String decodeIfBase64(String value) {
+  public DeleteResult deleteFolder(String prefix) {
     try {
-      return new String(Base64.getDecoder().decode(value), StandardCharsets.UTF_8);
-    } catch (IllegalArgumentException ex) {
-      return value;
+      return backend.deleteFolder(prefix);
+    } finally {
+      changed(List.of(), prefix);
     }
   }
 
-  private void ensureConfigured() {
-    if (storage == null) {
-      throw new IllegalStateException("Storage client is not configured.");
+  public String generateSignedUrl(String path) {
+    return signedUrlCache.get(path, backend::generateSignedUrl);
+  }
+
+  public Map<String, String> generateSignedUrls(Collection<String> paths) {
+    if (paths == null) {
+      return Map.of();
+    }
+    if (paths.size() > maxSignedUrlBatch) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Too many paths");
+    }
+    Map<String, String> urls = new LinkedHashMap<>();
+    for (String path : paths) {
+      if (path != null && !path.isBlank() && !urls.containsKey(path)) {
+        urls.put(path, generateSignedUrl(path));
+      }
     }
+    return urls;
+  }
+
+  private void changed(List<String> paths, String prefix) {
+    eventPublisher.publishEvent(new StorageChangedEvent(paths, prefix));
   }
 
   public record StorageObject(byte[] data, String contentType) {}
+
+  public record DeleteResult(int deleted, List<String> missing, Map<String, String> failed) {
+    public boolean hasFailures() {
+      return !failed.isEmpty();
+    }
+  }
+
+  public record StorageObjectInfo(
+      String contentType,
+      long size,
+      Long generation,
+      String md5,
+      Long updated
+  ) {}
 }
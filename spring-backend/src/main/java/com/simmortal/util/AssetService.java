@@ -1,5 +1,7 @@
 package com.simmortal.util;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -13,4 +15,14 @@ public class AssetService {
     }
     return "/api/v1/asset/" + path;
   }
+
+  public Map<String, String> generateVariantUrls(Map<?, ?> variants) {
+    Map<String, String> urls = new LinkedHashMap<>();
+    variants.forEach((width, path) -> {
+      if (width != null && path != null) {
+        urls.put(width.toString(), generateAssetUrl(path.toString()));
+      }
+    });
+    return urls;
+  }
 }
@@ -0,0 +1,40 @@
+package com.simmortal.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+public final class ClientIp {
+  private static final String SALT = Optional.ofNullable(System.getenv("IP_SALT")).orElse("");
+
+  private ClientIp() {
+  }
+
+  public static String resolve(HttpServletRequest request, int trustedProxyHops) {
+    String appEngine = request.getHeader("X-AppEngine-Remote-Addr");
+    if (appEngine != null && !appEngine.isBlank()) {
+      return appEngine.trim();
+    }
+    String forwarded = request.getHeader("X-Forwarded-For");
+    if (trustedProxyHops > 0 && forwarded != null && !forwarded.isBlank()) {
+      String[] hops = forwarded.split(",");
+      String hop = hops[Math.max(0, hops.length - trustedProxyHops)].trim();
+      if (!hop.isEmpty()) {
+        return hop;
+      }
+    }
+    return Optional.ofNullable(request.getRemoteAddr()).orElse("127.0.0.1");
+  }
+
+  public static String hash(String ip) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest((ip + SALT).getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException("SHA-256 is not available", ex);
+    }
+  }
+}
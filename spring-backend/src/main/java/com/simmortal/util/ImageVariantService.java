@@ -0,0 +1,145 @@
+package com.simmortal.util;
+
+import com.simmortal.storage.StorageService;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+@Service
+public class ImageVariantService {
+  private static final Logger logger = LoggerFactory.getLogger(ImageVariantService.class);
+  private static final String VARIANT_CONTENT_TYPE = "image/jpeg";
+
+  private final StorageService storageService;
+  private final List<Integer> widths;
+  private final float quality;
+  private final long maxPixels;
+
+  public ImageVariantService(
+      StorageService storageService,
+      @Value("${app.image.variants.widths:160,480,1080}") List<Integer> widths,
+      @Value("${app.image.variants.quality:0.82}") float quality,
+      @Value("${app.image.variants.max-pixels:40000000}") long maxPixels
+  ) {
+    this.storageService = storageService;
+    this.widths = widths.stream().filter(width -> width > 0).sorted().distinct().toList();
+    this.quality = quality;
+    this.maxPixels = maxPixels;
+  }
+
+  public Map<String, String> generate(String path, InputStream input) {
+    BufferedImage original;
+    try {
+      original = decode(input);
+    } catch (IOException ex) {
+      logger.warn("Failed to decode image {} for variants", path, ex);
+      return Map.of();
+    }
+    if (original == null) {
+      return Map.of();
+    }
+    Map<String, String> generated = new LinkedHashMap<>();
+    for (int width : widths) {
+      if (width >= original.getWidth()) {
+        generated.put(String.valueOf(width), path);
+        continue;
+      }
+      String variantPath = variantPath(path, width);
+      try {
+        storageService.save(variantPath, encode(scale(original, width)), VARIANT_CONTENT_TYPE);
+        generated.put(String.valueOf(width), variantPath);
+      } catch (IOException | RuntimeException ex) {
+        logger.warn("Failed to store {}px variant of {}", width, path, ex);
+      }
+    }
+    return generated;
+  }
+
+  public static String variantPath(String path, int width) {
+    int slash = path.lastIndexOf('/');
+    int dot = path.lastIndexOf('.');
+    String base = dot > slash ? path.substring(0, dot) : path;
+    return base + "_w" + width + ".jpg";
+  }
+
+  private BufferedImage decode(InputStream input) throws IOException {
+    try (ImageInputStream stream = ImageIO.createImageInputStream(input)) {
+      if (stream == null) {
+        return null;
+      }
+      Iterator<ImageReader> readers = ImageIO.getImageReaders(stream);
+      if (!readers.hasNext()) {
+        return null;
+      }
+      ImageReader reader = readers.next();
+      try {
+        reader.setInput(stream, true, true);
+        if ((long) reader.getWidth(0) * reader.getHeight(0) > maxPixels) {
+          return null;
+        }
+        return reader.read(0);
+      } finally {
+        reader.dispose();
+      }
+    }
+  }
+
+  private BufferedImage scale(BufferedImage original, int width) {
+    int height = Math.max(1, (int) Math.round((double) original.getHeight() * width / original.getWidth()));
+    BufferedImage current = original;
+    int currentWidth = original.getWidth();
+    int currentHeight = original.getHeight();
+    do {
+      int nextWidth = Math.max(width, currentWidth / 2);
+      int nextHeight = Math.max(height, currentHeight / 2);
+      BufferedImage next = new BufferedImage(nextWidth, nextHeight, BufferedImage.TYPE_INT_RGB);
+      Graphics2D graphics = next.createGraphics();
+      try {
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        graphics.drawImage(current, 0, 0, nextWidth, nextHeight, Color.WHITE, null);
+      } finally {
+        graphics.dispose();
+      }
+      current = next;
+      currentWidth = nextWidth;
+      currentHeight = nextHeight;
+    } while (currentWidth > width || currentHeight > height);
+    return current;
+  }
+
+  private byte[] encode(BufferedImage image) throws IOException {
+    ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    try (ImageOutputStream output = ImageIO.createImageOutputStream(buffer)) {
+      ImageWriteParam param = writer.getDefaultWriteParam();
+      param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+      param.setCompressionQuality(quality);
+      param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+      writer.setOutput(output);
+      writer.write(null, new IIOImage(image, null, null), param);
+    } finally {
+      writer.dispose();
+    }
+    return buffer.toByteArray();
+  }
+}
@@ -0,0 +1,121 @@
+package com.simmortal.asset;
+
+import com.simmortal.storage.BenchmarkStorage;
+import com.simmortal.storage.StorageService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.unit.DataSize;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AssetServiceBenchmark {
+  private static final int SMALL_SIZE = 64 * 1024;
+  private static final int LARGE_SIZE = 4 * 1024 * 1024;
+
+  @Param({BenchmarkStorage.LOCAL})
+  private String backend;
+
+  private BenchmarkStorage storage;
+  private Path diskCacheDirectory;
+  private AssetDiskCache diskCache;
+  private AssetService assetService;
+  private String smallPath;
+  private String largePath;
+
+  @Setup
+  public void setUp() throws IOException {
+    storage = BenchmarkStorage.open(backend);
+    StorageService storageService = storage.storageService();
+    diskCacheDirectory = Files.createTempDirectory("simmortal-asset-benchmark");
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    diskCache = new AssetDiskCache(storageService, true, diskCacheDirectory.toString(), DataSize.ofGigabytes(1),
+        DataSize.ofMegabytes(64), List.of(), 2, 64, meterRegistry);
+    assetService = new AssetService(
+        storageService,
+        new AssetMemoryCache(storageService, DataSize.ofMegabytes(64), DataSize.ofKilobytes(512), meterRegistry),
+        diskCache,
+        Duration.ofSeconds(60),
+        meterRegistry
+    );
+    smallPath = storage.path("small.jpg");
+    largePath = storage.path("large.mp4");
+    storageService.save(smallPath, randomBytes(SMALL_SIZE), "image/jpeg");
+    storageService.save(largePath, randomBytes(LARGE_SIZE), "video/mp4");
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    try {
+      diskCache.shutdown();
+      storage.close();
+    } finally {
+      FileSystemUtils.deleteRecursively(diskCacheDirectory);
+    }
+  }
+
+  @Benchmark
+  public void serveSmallFromMemory() throws IOException {
+    serve(smallPath, null);
+  }
+
+  @Benchmark
+  public void serveLargeFromDisk() throws IOException {
+    serve(largePath, null);
+  }
+
+  @Benchmark
+  public void serveLargeRange() throws IOException {
+    serve(largePath, "bytes=1048576-1114111");
+  }
+
+  @Benchmark
+  public AssetSource revalidateConditional() {
+    return assetService.resolveAsset(smallPath, true);
+  }
+
+  private void serve(String path, String range) throws IOException {
+    AssetSource source = assetService.resolveAsset(path, false);
+    AssetService.AssetPayload payload = assetService.fetchAsset(path, source, range, null);
+    assetService.writeAsset(payload, OutputStream.nullOutputStream());
+  }
+
+  private static byte[] randomBytes(int size) {
+    byte[] data = new byte[size];
+    ThreadLocalRandom.current().nextBytes(data);
+    return data;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(AssetServiceBenchmark.class.getSimpleName())
+        .param("backend", BenchmarkStorage.backends())
+        .build()).run();
+  }
+}
@@ -0,0 +1,67 @@
+package com.simmortal.memorial;
+
+import com.simmortal.memorial.MemorialLeaderboards.Board;
+import com.simmortal.memorial.MemorialLeaderboards.Contribution;
+import com.simmortal.memorial.MemorialLeaderboards.Standing;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MemorialLeaderboardsBenchmark {
+  @Param({"1000", "100000"})
+  private int contributors;
+
+  private MemorialLeaderboards leaderboards;
+  private long tick;
+
+  @Setup
+  public void setUp() {
+    leaderboards = new MemorialLeaderboards(10);
+    for (int i = 0; i < contributors; i++) {
+      leaderboards.replace("item-" + i, new Contribution("m1", "user-" + i, i, i, 0, 0));
+    }
+  }
+
+  @Benchmark
+  public void resaveTopContributor() {
+    resaveTop(contributors - 1 - (tick++ & 1));
+  }
+
+  @Benchmark
+  public void demoteTopContributor() {
+    resaveTop((tick++ & 1) == 0 ? 0 : contributors - 1);
+  }
+
+  @Benchmark
+  public List<Standing> readTop() {
+    return leaderboards.top("m1", Board.CANDLES);
+  }
+
+  private void resaveTop(long amount) {
+    int top = contributors - 1;
+    leaderboards.replace("item-" + top, new Contribution("m1", "user-" + top, amount, amount, 0, 0));
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(MemorialLeaderboardsBenchmark.class.getSimpleName()).build()).run();
+  }
+}
@@ -0,0 +1,118 @@
+package com.simmortal.memorial;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.simmortal.memorial.MemorialLeaderboards.Board;
+import com.simmortal.memorial.MemorialLeaderboards.Contribution;
+import com.simmortal.memorial.MemorialLeaderboards.Standing;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class MemorialLeaderboardsTest {
+  private final MemorialLeaderboards leaderboards = new MemorialLeaderboards(2);
+
+  @Test
+  void ranksContributorsByTotalAndKeepsOnlyTheTopEntries() {
+    leaderboards.replace("a", candles("alice", 5));
+    leaderboards.replace("b", candles("bob", 9));
+    leaderboards.replace("c", candles("carol", 7));
+    leaderboards.replace("d", candles("alice", 3));
+
+    assertThat(leaderboards.top("m1", Board.CANDLES))
+        .containsExactly(new Standing("bob", 9), new Standing("alice", 8));
+  }
+
+  @Test
+  void loweringARankedContributionPromotesTheNextContributor() {
+    leaderboards.replace("a", candles("alice", 10));
+    leaderboards.replace("b", candles("bob", 8));
+    leaderboards.replace("c", candles("carol", 6));
+
+    leaderboards.replace("a", candles("alice", 4));
+
+    assertThat(leaderboards.top("m1", Board.CANDLES))
+        .containsExactly(new Standing("bob", 8), new Standing("carol", 6));
+  }
+
+  @Test
+  void resavingAnUnchangedContributionKeepsTheStanding() {
+    leaderboards.replace("a", candles("alice", 10));
+    leaderboards.replace("b", candles("bob", 8));
+
+    leaderboards.replace("a", candles("alice", 10));
+
+    assertThat(leaderboards.top("m1", Board.CANDLES))
+        .containsExactly(new Standing("alice", 10), new Standing("bob", 8));
+  }
+
+  @Test
+  void movingAContributionToAnotherUserRetractsItFromTheFirst() {
+    leaderboards.replace("a", candles("alice", 10));
+
+    leaderboards.replace("a", candles("bob", 10));
+
+    assertThat(leaderboards.top("m1", Board.CANDLES)).containsExactly(new Standing("bob", 10));
+  }
+
+  @Test
+  void removingTheLastContributionClearsTheStanding() {
+    leaderboards.replace("a", candles("alice", 10));
+
+    leaderboards.replace("a", null);
+
+    assertThat(leaderboards.top("m1", Board.CANDLES)).isEmpty();
+  }
+
+  @Test
+  void rebuildReplacesEveryBoard() {
+    leaderboards.replace("a", candles("alice", 10));
+
+    leaderboards.rebuild(() -> Map.of("b", candles("bob", 3)));
+
+    assertThat(leaderboards.top("m1", Board.CANDLES)).containsExactly(new Standing("bob", 3));
+  }
+
+  @Test
+  void contributionsRecordedWhileARebuildSnapshotsSurviveIt() throws InterruptedException {
+    Thread writer = new Thread(() -> leaderboards.replace("b", candles("bob", 3)));
+
+    leaderboards.rebuild(() -> {
+      writer.start();
+      awaitBlockedOrDone(writer);
+      return Map.of("a", candles("alice", 10));
+    });
+    writer.join(5000);
+
+    assertThat(leaderboards.top("m1", Board.CANDLES))
+        .containsExactly(new Standing("alice", 10), new Standing("bob", 3));
+  }
+
+  @Test
+  void removingARankedContributorPromotesTheBestUnrankedOne() {
+    leaderboards.replace("a", candles("alice", 10));
+    leaderboards.replace("b", candles("bob", 8));
+    leaderboards.replace("c", candles("carol", 6));
+    leaderboards.replace("d", candles("dave", 7));
+
+    leaderboards.replace("a", null);
+
+    assertThat(leaderboards.top("m1", Board.CANDLES))
+        .containsExactly(new Standing("bob", 8), new Standing("dave", 7));
+  }
+
+  private static void awaitBlockedOrDone(Thread thread) {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (System.nanoTime() < deadline) {
+      Thread.State state = thread.getState();
+      if (state == Thread.State.WAITING || state == Thread.State.TERMINATED) {
+        return;
+      }
+      Thread.onSpinWait();
+    }
+  }
+
+  private static Contribution candles(String userId, long amount) {
+    return new Contribution("m1", userId, amount, 0, 0, 0);
+  }
+}
@@ -0,0 +1,90 @@
+package com.simmortal.memorial;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jol.info.GraphLayout;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class MemorialLikeStoreBenchmark {
+  @Param({"100"})
+  private int memorials;
+
+  @Param({"10000"})
+  private int likesPerMemorial;
+
+  private String[] memorialIds;
+  private String[] userIds;
+
+  @Setup
+  public void setUp() {
+    memorialIds = new String[memorials];
+    for (int i = 0; i < memorials; i++) {
+      memorialIds[i] = "memorial-" + i;
+    }
+    userIds = new String[likesPerMemorial];
+    for (int i = 0; i < likesPerMemorial; i++) {
+      userIds[i] = "00000000-0000-4000-8000-" + String.format("%012d", i);
+    }
+  }
+
+  @Benchmark
+  public MemorialLikeStore fillLikeStore() {
+    MemorialLikeStore store = new MemorialLikeStore();
+    for (String memorialId : memorialIds) {
+      for (String userId : userIds) {
+        store.like(memorialId, userId);
+      }
+    }
+    return store;
+  }
+
+  @Benchmark
+  public Map<String, Set<String>> fillStringSets() {
+    Map<String, Set<String>> likes = new ConcurrentHashMap<>();
+    for (String memorialId : memorialIds) {
+      for (String userId : userIds) {
+        likes.computeIfAbsent(memorialId, id -> ConcurrentHashMap.newKeySet()).add(userId);
+      }
+    }
+    return likes;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(MemorialLikeStoreBenchmark.class.getSimpleName()).build()).run();
+
+    MemorialLikeStoreBenchmark benchmark = new MemorialLikeStoreBenchmark();
+    benchmark.memorials = 100;
+    benchmark.likesPerMemorial = 10000;
+    benchmark.setUp();
+    long likes = (long) benchmark.memorials * benchmark.likesPerMemorial;
+    printFootprint("MemorialLikeStore", benchmark.fillLikeStore(), likes);
+    printFootprint("Map<String, Set<String>>", benchmark.fillStringSets(), likes);
+  }
+
+  private static void printFootprint(String label, Object root, long likes) {
+    long bytes = GraphLayout.parseInstance(root).totalSize();
+    System.out.printf("%s retains %,d bytes for %,d likes (%.1f bytes/like)%n",
+        label, bytes, likes, (double) bytes / likes);
+  }
+}
@@ -0,0 +1,80 @@
+package com.simmortal.memorial;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MemorialNameIndexBenchmark {
+  private static final String[] FIRST_NAMES = {
+      "Ahmet", "Mehmet", "Ay\u015Fe", "Fatma", "Mustafa", "Emine", "Ali", "Hatice", "H\u00FCseyin", "Zeynep"
+  };
+  private static final String[] LAST_NAMES = {
+      "Y\u0131lmaz", "Kaya", "Demir", "\u015Eahin", "\u00C7elik", "Y\u0131ld\u0131z", "Ayd\u0131n", "\u00D6zt\u00FCrk", "Arslan", "Do\u011Fan"
+  };
+
+  @Param({"10000", "100000", "1000000"})
+  private int memorials;
+
+  @Param({"z", "\u00F6z", "yilmaz", "ayse kaya"})
+  private String query;
+
+  private MemorialNameIndex index;
+  private String[] ids;
+  private String[] names;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    index = new MemorialNameIndex();
+    ids = new String[memorials];
+    names = new String[memorials];
+    for (int i = 0; i < memorials; i++) {
+      ids[i] = "memorial-" + i;
+      names[i] = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+          + LAST_NAMES[random.nextInt(LAST_NAMES.length)] + " " + Integer.toString(i, 36);
+      index.index(ids[i], names[i]);
+    }
+  }
+
+  @Benchmark
+  public List<String> search() {
+    return index.search(query, 20);
+  }
+
+  @Benchmark
+  public List<String> linearScan() {
+    String folded = MemorialNameIndex.fold(query);
+    List<String> matches = new ArrayList<>();
+    for (int i = 0; i < names.length && matches.size() < 20; i++) {
+      if (MemorialNameIndex.fold(names[i]).contains(folded)) {
+        matches.add(ids[i]);
+      }
+    }
+    return matches;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(MemorialNameIndexBenchmark.class.getSimpleName()).build()).run();
+  }
+}
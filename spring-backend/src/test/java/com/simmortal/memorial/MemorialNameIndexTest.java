@@ -0,0 +1,47 @@
+package com.simmortal.memorial;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class MemorialNameIndexTest {
+  private final MemorialNameIndex index = new MemorialNameIndex();
+
+  @Test
+  void shortQueriesMatchOnlyNamesContainingThem() {
+    index.index("1", "Ali Veli");
+    index.index("2", "Ay\u015Fe Kaya");
+    index.index("3", "Mehmet \u00D6z");
+
+    assertThat(index.search("oz", 10)).containsExactly("3");
+    assertThat(index.search("y", 10)).containsExactly("2");
+    assertThat(index.search("q", 10)).isEmpty();
+  }
+
+  @Test
+  void shortQueriesRankPrefixMatchesFirst() {
+    index.index("1", "Hasan Ali");
+    index.index("2", "Ali");
+    index.index("3", "Alican");
+
+    assertThat(index.search("al", 10)).containsExactly("2", "3", "1");
+  }
+
+  @Test
+  void renamingDropsStaleShortGrams() {
+    index.index("1", "Zeynep");
+    index.index("1", "Elif");
+
+    assertThat(index.search("z", 10)).isEmpty();
+    assertThat(index.search("el", 10)).containsExactly("1");
+  }
+
+  @Test
+  void longQueriesStillIntersectTrigrams() {
+    index.index("1", "Ahmet Y\u0131lmaz");
+    index.index("2", "Ahmet Kaya");
+
+    assertThat(index.search("yilmaz", 10)).containsExactly("1");
+    assertThat(index.search("ahmet", 10)).containsExactly("2", "1");
+  }
+}
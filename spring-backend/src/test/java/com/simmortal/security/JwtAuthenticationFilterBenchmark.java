@@ -0,0 +1,86 @@
+package com.simmortal.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+  private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark";
+
+  @Param({"10000", "0"})
+  private int cacheEntries;
+
+  @Param({"1", "1000"})
+  private int sessions;
+
+  private JwtAuthenticationFilter filter;
+  private String[] headers;
+
+  @Setup
+  public void setUp() {
+    JwtService jwtService = new JwtService(SECRET, cacheEntries, Duration.ofMinutes(5));
+    AuthRoutes authRoutes = new AuthRoutes(List.of("/asset/**"), 50, new SimpleMeterRegistry());
+    filter = new JwtAuthenticationFilter(jwtService, authRoutes);
+    headers = new String[sessions];
+    for (int i = 0; i < sessions; i++) {
+      String token = Jwts.builder()
+          .subject("user-" + i)
+          .expiration(new Date(System.currentTimeMillis() + Duration.ofHours(1).toMillis()))
+          .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+          .compact();
+      headers[i] = "Bearer " + token;
+    }
+  }
+
+  @Benchmark
+  public Object authenticate() throws ServletException, IOException {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/memorial/owned");
+    request.addHeader(HttpHeaders.AUTHORIZATION, headers[ThreadLocalRandom.current().nextInt(sessions)]);
+    Object[] principal = new Object[1];
+    try {
+      filter.doFilter(request, new MockHttpServletResponse(), (req, res) ->
+          principal[0] = SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+    } finally {
+      SecurityContextHolder.clearContext();
+    }
+    return principal[0];
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(JwtAuthenticationFilterBenchmark.class.getSimpleName()).build()).run();
+  }
+}
@@ -0,0 +1,149 @@
+package com.simmortal.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.crypto.SecretKey;
+import org.junit.jupiter.api.Test;
+
+class JwtServiceTest {
+  private static final String SECRET = "test-secret-test-secret-test-secret";
+  private static final SecretKey KEY = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+
+  private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+  private final AtomicInteger parses = new AtomicInteger();
+  private final JwtService jwtService = service(100);
+
+  @Test
+  void resolvesTheSubjectAndServesRepeatsFromTheCache() {
+    String token = token("user-1", Duration.ofHours(1));
+
+    assertThat(jwtService.extractUserId(token)).isEqualTo("user-1");
+    assertThat(jwtService.extractUserId(token)).isEqualTo("user-1");
+    assertThat(parses).hasValue(1);
+  }
+
+  @Test
+  void fallsBackToTheUserIdClaim() {
+    String token = Jwts.builder()
+        .claim("userId", "user-2")
+        .expiration(Date.from(clock.instant().plus(Duration.ofMinutes(1))))
+        .signWith(KEY)
+        .compact();
+
+    assertThat(jwtService.extractUserId(token)).isEqualTo("user-2");
+  }
+
+  @Test
+  void rejectsATamperedTokenEvenWhenTheOriginalIsCached() {
+    String token = token("user-1", Duration.ofHours(1));
+    jwtService.extractUserId(token);
+    String forged = token("admin", Duration.ofHours(1));
+    String tampered = forged.substring(0, forged.lastIndexOf('.')) + token.substring(token.lastIndexOf('.'));
+
+    assertThatThrownBy(() -> jwtService.extractUserId(tampered)).isInstanceOf(SignatureException.class);
+    assertThat(parses).hasValue(2);
+  }
+
+  @Test
+  void stopsServingACachedTokenOnceItExpires() {
+    String token = token("user-1", Duration.ofSeconds(2));
+    assertThat(jwtService.extractUserId(token)).isEqualTo("user-1");
+
+    clock.advance(Duration.ofSeconds(3));
+
+    assertThatThrownBy(() -> jwtService.extractUserId(token)).isInstanceOf(ExpiredJwtException.class);
+    assertThat(parses).hasValue(2);
+  }
+
+  @Test
+  void reverifiesOnceTheMaximumCacheTtlHasPassed() {
+    String token = token("user-1", Duration.ofHours(1));
+    jwtService.extractUserId(token);
+
+    clock.advance(Duration.ofMinutes(6));
+
+    assertThat(jwtService.extractUserId(token)).isEqualTo("user-1");
+    assertThat(parses).hasValue(2);
+  }
+
+  @Test
+  void verifiesEveryTimeWhenTheCacheIsDisabled() {
+    JwtService uncached = service(0);
+    String token = token("user-3", Duration.ofHours(1));
+
+    assertThat(uncached.extractUserId(token)).isEqualTo("user-3");
+    assertThat(uncached.extractUserId(token)).isEqualTo("user-3");
+    assertThat(parses).hasValue(2);
+  }
+
+  private JwtService service(int maxCachedTokens) {
+    return new JwtService(counting(JwtService.parser(KEY, clock)), maxCachedTokens, Duration.ofMinutes(5), clock);
+  }
+
+  private JwtParser counting(JwtParser delegate) {
+    return (JwtParser) Proxy.newProxyInstance(
+        JwtParser.class.getClassLoader(),
+        new Class<?>[] {JwtParser.class},
+        (proxy, method, args) -> {
+          if (method.getName().equals("parseSignedClaims")) {
+            parses.incrementAndGet();
+          }
+          try {
+            return method.invoke(delegate, args);
+          } catch (InvocationTargetException ex) {
+            throw ex.getCause();
+          }
+        });
+  }
+
+  private String token(String subject, Duration lifetime) {
+    return Jwts.builder()
+        .subject(subject)
+        .expiration(Date.from(clock.instant().plus(lifetime)))
+        .signWith(KEY)
+        .compact();
+  }
+
+  private static final class MutableClock extends Clock {
+    private Instant now;
+
+    private MutableClock(Instant now) {
+      this.now = now;
+    }
+
+    void advance(Duration duration) {
+      now = now.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
+}
@@ -0,0 +1,211 @@
+package com.simmortal.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwks;
+import jakarta.servlet.http.Cookie;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+class SupertokensSessionServiceTest {
+  private static final String KEY_ID = "key-1";
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final KeyPair keyPair = Jwts.SIG.RS256.keyPair().build();
+  private final AtomicInteger verifyCalls = new AtomicInteger();
+  private final AtomicInteger jwksCalls = new AtomicInteger();
+  private volatile CountDownLatch releaseVerify = new CountDownLatch(0);
+  private HttpServer server;
+  private ExecutorService serverThreads;
+
+  @BeforeEach
+  void startStub() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    serverThreads = Executors.newCachedThreadPool();
+    server.setExecutor(serverThreads);
+    server.createContext("/recipe/session/verify", exchange -> {
+      verifyCalls.incrementAndGet();
+      try {
+        releaseVerify.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+      Map<?, ?> request = objectMapper.readValue(exchange.getRequestBody(), Map.class);
+      String token = String.valueOf(request.get("accessToken"));
+      respond(exchange, token.startsWith("valid")
+          ? Map.of("status", "OK", "userId", "remote-" + token)
+          : Map.of("status", "UNAUTHORISED"));
+    });
+    server.createContext("/.well-known/jwks.json", exchange -> {
+      jwksCalls.incrementAndGet();
+      Map<String, Object> jwk = new LinkedHashMap<>(
+          Jwks.builder().key((RSAPublicKey) keyPair.getPublic()).id(KEY_ID).build());
+      respond(exchange, Map.of("keys", List.of(jwk)));
+    });
+    server.start();
+  }
+
+  @AfterEach
+  void stopStub() {
+    releaseVerify.countDown();
+    server.stop(0);
+    serverThreads.shutdownNow();
+  }
+
+  @Test
+  void cachesVerifiedSessionsPerAccessAndAntiCsrfToken() {
+    SupertokensSessionService service = service(10000, false);
+
+    assertThat(service.verifySession(request("valid-1", "csrf-a"))).contains("remote-valid-1");
+    assertThat(service.verifySession(request("valid-1", "csrf-a"))).contains("remote-valid-1");
+    assertThat(verifyCalls).hasValue(1);
+
+    assertThat(service.verifySession(request("valid-1", "csrf-b"))).contains("remote-valid-1");
+    assertThat(verifyCalls).hasValue(2);
+  }
+
+  @Test
+  void doesNotCacheRejectedSessions() {
+    SupertokensSessionService service = service(10000, false);
+
+    assertThat(service.verifySession(request("expired", "csrf"))).isEmpty();
+    assertThat(service.verifySession(request("expired", "csrf"))).isEmpty();
+    assertThat(verifyCalls).hasValue(2);
+  }
+
+  @Test
+  void coalescesConcurrentVerificationsOfTheSameToken() throws Exception {
+    SupertokensSessionService service = service(0, false);
+    releaseVerify = new CountDownLatch(1);
+    int callers = 8;
+    ExecutorService pool = Executors.newFixedThreadPool(callers);
+    List<Thread> threads = new ArrayList<>();
+    try {
+      List<Future<Optional<String>>> results = new ArrayList<>();
+      for (int i = 0; i < callers; i++) {
+        results.add(pool.submit(() -> {
+          synchronized (threads) {
+            threads.add(Thread.currentThread());
+          }
+          return service.verifySession(request("valid-1", "csrf"));
+        }));
+      }
+      awaitParked(threads, callers);
+      releaseVerify.countDown();
+
+      for (Future<Optional<String>> result : results) {
+        assertThat(result.get(5, TimeUnit.SECONDS)).contains("remote-valid-1");
+      }
+      assertThat(verifyCalls).hasValue(1);
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  @Test
+  void verifiesLocallyWithCachedSigningKeys() {
+    SupertokensSessionService service = service(0, true);
+
+    assertThat(service.verifySession(request(signed("user-1", KEY_ID, "csrf"), "csrf"))).contains("user-1");
+    assertThat(service.verifySession(request(signed("user-2", KEY_ID, "csrf"), "csrf"))).contains("user-2");
+
+    assertThat(jwksCalls).hasValue(1);
+    assertThat(verifyCalls).hasValue(0);
+  }
+
+  @Test
+  void rejectsLocallyVerifiedTokensWithTheWrongAntiCsrfToken() {
+    SupertokensSessionService service = service(0, true);
+
+    assertThat(service.verifySession(request(signed("user-1", KEY_ID, "csrf"), "other"))).isEmpty();
+    assertThat(verifyCalls).hasValue(0);
+  }
+
+  @Test
+  void fallsBackToTheCoreForUnknownSigningKeys() {
+    SupertokensSessionService service = service(0, true);
+    String token = signed("user-1", "rotated-key", "csrf");
+
+    service.verifySession(request(token, "csrf"));
+
+    assertThat(verifyCalls).hasValue(1);
+  }
+
+  private SupertokensSessionService service(int maxCachedSessions, boolean localVerification) {
+    return new SupertokensSessionService(
+        "http://127.0.0.1:" + server.getAddress().getPort(),
+        "",
+        true,
+        Duration.ofSeconds(2),
+        Duration.ofSeconds(3),
+        Duration.ofSeconds(30),
+        maxCachedSessions,
+        localVerification,
+        "/.well-known/jwks.json",
+        Duration.ofHours(1)
+    );
+  }
+
+  private String signed(String userId, String keyId, String antiCsrfToken) {
+    return Jwts.builder()
+        .header().keyId(keyId).and()
+        .subject(userId)
+        .claim("antiCsrfToken", antiCsrfToken)
+        .expiration(new Date(System.currentTimeMillis() + 60_000))
+        .signWith(keyPair.getPrivate())
+        .compact();
+  }
+
+  private static MockHttpServletRequest request(String accessToken, String antiCsrfToken) {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/memorial/owned");
+    request.setCookies(new Cookie("sAccessToken", accessToken));
+    request.addHeader("anti-csrf", antiCsrfToken);
+    return request;
+  }
+
+  private void respond(HttpExchange exchange, Object body) throws IOException {
+    byte[] bytes = objectMapper.writeValueAsString(body).getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().set("Content-Type", "application/json");
+    exchange.sendResponseHeaders(200, bytes.length);
+    exchange.getResponseBody().write(bytes);
+    exchange.close();
+  }
+
+  private void awaitParked(List<Thread> threads, int callers) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (System.nanoTime() < deadline) {
+      synchronized (threads) {
+        if (verifyCalls.get() >= 1 && threads.size() == callers && threads.stream()
+            .allMatch(thread -> thread.getState() == Thread.State.WAITING
+                || thread.getState() == Thread.State.TIMED_WAITING)) {
+          return;
+        }
+      }
+      Thread.sleep(10);
+    }
+  }
+}
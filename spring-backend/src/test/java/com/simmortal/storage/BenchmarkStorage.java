@@ -0,0 +1,70 @@
+package com.simmortal.storage;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.UUID;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.unit.DataSize;
+
+public final class BenchmarkStorage implements AutoCloseable {
+  public static final String LOCAL = "local";
+  public static final String GCS = "gcs";
+
+  private final StorageBackend backend;
+  private final StorageService storageService;
+  private final Path root;
+  private final String prefix = "benchmark/" + UUID.randomUUID() + "/";
+
+  private BenchmarkStorage(StorageBackend backend, Path root) {
+    this.backend = backend;
+    this.root = root;
+    this.storageService = new StorageService(
+        backend,
+        new SignedUrlCache(Duration.ofMinutes(5), Duration.ofMinutes(10), Duration.ofMinutes(1), 10000,
+            new SimpleMeterRegistry()),
+        200,
+        event -> {}
+    );
+  }
+
+  public static BenchmarkStorage open(String backend) throws IOException {
+    if (GCS.equals(backend)) {
+      return new BenchmarkStorage(
+          new GcsStorageBackend(DataSize.ofMegabytes(2), 100, 4, Duration.ofMinutes(10)),
+          null
+      );
+    }
+    Path root = Files.createTempDirectory("simmortal-storage-benchmark");
+    return new BenchmarkStorage(new LocalStorageBackend(root, "/asset/", 4), root);
+  }
+
+  public static String[] backends() {
+    String bucket = System.getenv("GCLOUD_STORAGE_BUCKET");
+    return bucket == null || bucket.isBlank() ? new String[] {LOCAL} : new String[] {LOCAL, GCS};
+  }
+
+  public StorageService storageService() {
+    return storageService;
+  }
+
+  public String path(String name) {
+    return prefix + name;
+  }
+
+  @Override
+  public void close() throws Exception {
+    try {
+      storageService.deleteFolder(prefix);
+    } finally {
+      if (backend instanceof AutoCloseable closeable) {
+        closeable.close();
+      }
+      if (root != null) {
+        FileSystemUtils.deleteRecursively(root);
+      }
+    }
+  }
+}
@@ -0,0 +1,84 @@
+package com.simmortal.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+class LocalStorageBackendTest {
+  @TempDir
+  Path root;
+
+  private LocalStorageBackend backend;
+
+  @BeforeEach
+  void setUp() {
+    backend = new LocalStorageBackend(root, "/asset/", 2);
+  }
+
+  @AfterEach
+  void tearDown() {
+    backend.close();
+  }
+
+  @Test
+  void savesAndReadsBackObjectsWithTheirContentType() {
+    backend.save("memorial/1/photo.jpg", bytes("photo"), "image/jpeg");
+
+    StorageService.StorageObject object = backend.download("memorial/1/photo.jpg");
+
+    assertThat(object.data()).isEqualTo(bytes("photo"));
+    assertThat(object.contentType()).isEqualTo("image/jpeg");
+    assertThat(backend.describe("memorial/1/photo.jpg").size()).isEqualTo(5);
+  }
+
+  @Test
+  void rejectsAShortStreamWithoutReplacingTheObject() {
+    backend.save("memorial/1/photo.jpg", bytes("photo"), "image/jpeg");
+
+    assertThatThrownBy(() -> backend.save(
+        "memorial/1/photo.jpg", new ByteArrayInputStream(bytes("pho")), "image/jpeg", 5))
+        .isInstanceOf(IOException.class);
+
+    assertThat(backend.download("memorial/1/photo.jpg").data()).isEqualTo(bytes("photo"));
+  }
+
+  @Test
+  void rejectsPathsThatEscapeTheStorageRootWithBadRequest() throws IOException {
+    Files.writeString(root.resolve("secret.txt"), "secret");
+
+    for (String path : List.of("../secret.txt", "memorial/../../secret.txt", "/etc/passwd", ".")) {
+      assertThatThrownBy(() -> backend.download(path))
+          .isInstanceOfSatisfying(ResponseStatusException.class,
+              ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+      assertThatThrownBy(() -> backend.generateSignedUrl(path))
+          .isInstanceOf(ResponseStatusException.class);
+    }
+  }
+
+  @Test
+  void bulkDeleteReportsTraversingPathsAsFailures() {
+    backend.save("memorial/1/photo.jpg", bytes("photo"), "image/jpeg");
+
+    StorageService.DeleteResult result = backend.deleteAll(List.of("memorial/1/photo.jpg", "../secret.txt"));
+
+    assertThat(result.deleted()).isEqualTo(1);
+    assertThat(result.failed()).containsOnlyKeys("../secret.txt");
+    assertThat(backend.exists("memorial/1/photo.jpg")).isFalse();
+  }
+
+  private static byte[] bytes(String value) {
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,89 @@
+package com.simmortal.storage;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StorageServiceBenchmark {
+  private static final int OBJECT_SIZE = 256 * 1024;
+  private static final int RANGE_SIZE = 16 * 1024;
+
+  @Param({BenchmarkStorage.LOCAL})
+  private String backend;
+
+  private BenchmarkStorage storage;
+  private StorageService storageService;
+  private byte[] data;
+  private String objectPath;
+  private String writePath;
+
+  @Setup
+  public void setUp() throws IOException {
+    storage = BenchmarkStorage.open(backend);
+    storageService = storage.storageService();
+    data = new byte[OBJECT_SIZE];
+    ThreadLocalRandom.current().nextBytes(data);
+    objectPath = storage.path("object.bin");
+    writePath = storage.path("write.bin");
+    storageService.save(objectPath, data, "application/octet-stream");
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    storage.close();
+  }
+
+  @Benchmark
+  public void save() {
+    storageService.save(writePath, data, "application/octet-stream");
+  }
+
+  @Benchmark
+  public StorageService.StorageObject download() {
+    return storageService.download(objectPath);
+  }
+
+  @Benchmark
+  public StorageService.StorageObjectInfo describe() {
+    return storageService.describe(objectPath);
+  }
+
+  @Benchmark
+  public long copyRange() throws IOException {
+    return storageService.copyRange(objectPath, null, OBJECT_SIZE / 2, RANGE_SIZE, OutputStream.nullOutputStream());
+  }
+
+  @Benchmark
+  public String signedUrl() {
+    return storageService.generateSignedUrl(objectPath);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(StorageServiceBenchmark.class.getSimpleName())
+        .param("backend", BenchmarkStorage.backends())
+        .build()).run();
+  }
+}
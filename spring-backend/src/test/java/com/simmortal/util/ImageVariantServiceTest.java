@@ -0,0 +1,73 @@
+package com.simmortal.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.simmortal.storage.LocalStorageBackend;
+import com.simmortal.storage.SignedUrlCache;
+import com.simmortal.storage.StorageService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ImageVariantServiceTest {
+  @TempDir
+  Path root;
+
+  private LocalStorageBackend backend;
+  private StorageService storageService;
+  private ImageVariantService imageVariantService;
+
+  @BeforeEach
+  void setUp() {
+    backend = new LocalStorageBackend(root, "/asset/", 1);
+    storageService = new StorageService(
+        backend,
+        new SignedUrlCache(Duration.ofMinutes(5), Duration.ofMinutes(10), Duration.ofMinutes(1), 100,
+            new SimpleMeterRegistry()),
+        200,
+        event -> {}
+    );
+    imageVariantService = new ImageVariantService(storageService, List.of(160, 480, 1080), 0.8f, 40_000_000);
+  }
+
+  @AfterEach
+  void tearDown() {
+    backend.close();
+  }
+
+  @Test
+  void encodesOnlyWidthsSmallerThanTheOriginalAndReusesTheOriginalForTheRest() throws IOException {
+    Map<String, String> variants = imageVariantService.generate("memorial/1/portrait.png", png(480, 320));
+
+    assertThat(variants).containsExactly(
+        Map.entry("160", "memorial/1/portrait_w160.jpg"),
+        Map.entry("480", "memorial/1/portrait.png"),
+        Map.entry("1080", "memorial/1/portrait.png"));
+    assertThat(storageService.exists("memorial/1/portrait_w160.jpg")).isTrue();
+    assertThat(storageService.exists("memorial/1/portrait_w480.jpg")).isFalse();
+    assertThat(storageService.exists("memorial/1/portrait_w1080.jpg")).isFalse();
+  }
+
+  @Test
+  void returnsNoVariantsForUndecodableInput() {
+    assertThat(imageVariantService.generate("memorial/1/portrait.png", new ByteArrayInputStream(new byte[] {1, 2})))
+        .isEmpty();
+  }
+
+  private static ByteArrayInputStream png(int width, int height) throws IOException {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", output);
+    return new ByteArrayInputStream(output.toByteArray());
+  }
+}